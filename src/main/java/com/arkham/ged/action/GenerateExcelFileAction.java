@@ -14,6 +14,8 @@ import java.io.File;
 import java.sql.Connection;
 import java.util.List;
 
+import jakarta.enterprise.inject.spi.CDI;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,7 +24,9 @@ import com.arkham.ged.filekey.FileKey;
 import com.arkham.ged.properties.InputScanFileDef;
 import com.arkham.ged.properties.PropertiesAdapter;
 import com.arkham.ged.xlsgen.ExcelGenerator;
+import com.arkham.ged.xlsgen.GenerationServices;
 import com.arkham.ged.xlsgen.XlsgenException;
+import com.arkham.ged.xlsgen.cache.GenerationResultCache;
 
 /**
  * Generate an Excel file from YAML stream
@@ -42,7 +46,14 @@ public class GenerateExcelFileAction extends AbstractAction<InputScanFileDef, Fi
 
             LOGGER.info("execute() : processing YAML file {} using charset {}", path.toAbsolutePath(), charset);
 
+            // Actions are created by reflection : the shared services are taken from the container
+            final var cdi = CDI.current();
+            final var cache = cdi.select(GenerationResultCache.class).get();
+
             final var eg = new ExcelGenerator(path, charset);
+            eg.setServices(cdi.select(GenerationServices.class).get());
+            // Re-dropped files with same YAML and same model are not generated again
+            eg.setCache(cache.isEnabled() ? cache : null);
             eg.generate(con);
         } catch (final XlsgenException e) {
             throw new ActionException(e);
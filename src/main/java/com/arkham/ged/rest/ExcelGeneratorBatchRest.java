@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.arkham.ged.xlsgen.ExcelGenerator;
+import com.arkham.ged.xlsgen.GenerationServices;
+import com.arkham.ged.xlsgen.XlsgenException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Counted;
+import org.eclipse.microprofile.metrics.annotation.Timed;
+import org.jboss.resteasy.reactive.NoCache;
+import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_1;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_2;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_3;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_4;
+
+/**
+ * REST service for batch YAML => Excel transformation. Each YAML document (<code>---</code> separated, or each uploaded part) is generated in
+ * parallel and the workbooks are streamed back as ZIP entries as soon as they are done. Entries are prefixed by the document index, a
+ * failed document gives a <code>_error.txt</code> entry instead of a workbook.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@RegisterForReflection
+@ApplicationScoped
+@Path("batch")
+public class ExcelGeneratorBatchRest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExcelGeneratorBatchRest.class);
+
+    private static final String CT_ZIP = "application/zip";
+
+    /**
+     * Number of parallel generations, 0 or less means the number of available processors
+     */
+    @ConfigProperty(name = "yeti.batch.parallelism", defaultValue = "0")
+    int mParallelism;
+
+    @Inject
+    GenerationLimiter mLimiter;
+
+    @Inject
+    GenerationServices mServices;
+
+    private ExecutorService mExecutor;
+    private int mThreads;
+
+    @PostConstruct
+    void init() {
+        mThreads = mParallelism > 0 ? mParallelism : Runtime.getRuntime().availableProcessors();
+
+        final var count = new AtomicInteger();
+        mExecutor = Executors.newFixedThreadPool(mThreads, r -> {
+            final var t = new Thread(r, "yeti-batch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void destroy() {
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Batch from a multi-documents YAML body
+     *
+     * @param ct The content type of the request, may declare the charset of the body
+     * @param body The YAML documents
+     * @return The ZIP of workbooks, written directly into the response
+     */
+    @POST
+    @Produces(CT_ZIP)
+    @Consumes({ CT_YAML_1, CT_YAML_2, CT_YAML_3, CT_YAML_4 })
+    @NoCache
+    @Counted(name = "batchRequests", description = "How many batch generations have been requested.")
+    @Timed(name = "batchTimer", description = "A measure of how long it takes to generate a batch.", unit = MetricUnits.MILLISECONDS)
+    @RunOnVirtualThread
+    public StreamingOutput generateBatch(@HeaderParam(HttpHeaders.CONTENT_TYPE) final String ct, final InputStream body) {
+        final var cs = Charset.forName(ExcelGeneratorRest.parseCharset(ct));
+
+        return os -> {
+            try (var batch = new Batch(os)) {
+                batch.submitAll(new InputStreamReader(body, cs));
+            }
+        };
+    }
+
+    /**
+     * Batch from uploaded YAML files, each file may itself contain several documents
+     *
+     * @param files The uploaded files, whatever the form field names
+     * @return The ZIP of workbooks, written directly into the response
+     */
+    @POST
+    @Produces(CT_ZIP)
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @NoCache
+    @Counted(name = "batchUploadRequests", description = "How many batch generations by upload have been requested.")
+    @Timed(name = "batchUploadTimer", description = "A measure of how long it takes to generate a batch by upload.", unit = MetricUnits.MILLISECONDS)
+    @RunOnVirtualThread
+    public StreamingOutput generateBatchUpload(@RestForm(FileUpload.ALL) final List<FileUpload> files) {
+        return os -> {
+            try (var batch = new Batch(os)) {
+                for (final FileUpload fu : files) {
+                    final var cs = fu.charSet() != null && Charset.isSupported(fu.charSet()) ? Charset.forName(fu.charSet()) : StandardCharsets.UTF_8;
+
+                    LOGGER.info("generateBatchUpload() : reading {}", fu.fileName());
+
+                    if (!batch.submitAll(new InputStreamReader(Files.newInputStream(fu.uploadedFile()), cs))) {
+                        break;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Result of one document
+     */
+    private static final class Result {
+        private final String mName;
+        private final byte[] mContent;
+
+        Result(final String name, final byte[] content) {
+            mName = name;
+            mContent = content;
+        }
+    }
+
+    /**
+     * One batch : documents are submitted while finished results are written, with a bounded number of documents in flight so that memory
+     * does not depend on the batch size.
+     */
+    private final class Batch implements AutoCloseable {
+        private final ZipOutputStream mZip;
+        private final CompletionService<Result> mCs;
+        private final Set<Future<Result>> mFutures = new HashSet<>();
+        private int mIndex;
+        private int mPending;
+
+        Batch(final OutputStream os) {
+            mZip = new ZipOutputStream(os);
+            // Workbooks are mostly already compressed (xlsx), do not spend CPU here
+            mZip.setLevel(Deflater.BEST_SPEED);
+            mCs = new ExecutorCompletionService<>(mExecutor);
+        }
+
+        /**
+         * @param reader The YAML documents
+         * @return false if the stream is invalid, the remaining sources should be ignored
+         * @throws IOException The response cannot be written
+         */
+        boolean submitAll(final Reader reader) throws IOException {
+            try (reader; var docs = ExcelGenerator.readDocuments(reader)) {
+                while (docs.hasNextValue()) {
+                    submit(docs.nextValue());
+                }
+            } catch (final RuntimeException | IOException e) { // NOSONAR
+                if (e instanceof ZipIOException) {
+                    throw ((ZipIOException) e).getCause();
+                }
+
+                // Parse problem, the previous documents are still returned
+                LOGGER.error("submitAll() : invalid YAML stream after document {} : {}", mIndex, e.getMessage());
+                writeError(mIndex + 1, e);
+
+                return false;
+            }
+
+            return true;
+        }
+
+        private void submit(final JsonNode doc) {
+            // Limit documents in flight, write what is done in the meantime
+            while (mPending >= mThreads * 2) {
+                writeNext();
+            }
+
+            final var index = ++mIndex;
+            mFutures.add(mCs.submit(() -> generate(index, doc)));
+            mPending++;
+        }
+
+        private void writeNext() {
+            try {
+                final var f = mCs.take();
+                mFutures.remove(f);
+                mPending--;
+
+                final var result = f.get();
+
+                mZip.putNextEntry(new ZipEntry(result.mName));
+                mZip.write(result.mContent);
+                mZip.closeEntry();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ZipIOException(new IOException(e));
+            } catch (final ExecutionException e) {
+                // generate() never fails, errors are results
+                throw new ZipIOException(new IOException(e.getCause()));
+            } catch (final IOException e) {
+                throw new ZipIOException(e);
+            }
+        }
+
+        private void writeError(final int index, final Exception e) throws IOException {
+            mZip.putNextEntry(new ZipEntry(String.format("%04d_error.txt", index)));
+            mZip.write(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            mZip.closeEntry();
+        }
+
+        private Result generate(final int index, final JsonNode doc) {
+            final var eg = new ExcelGenerator(doc);
+            eg.setThrottle(mLimiter.getSemaphore());
+            eg.setServices(mServices);
+
+            try (var baos = new ByteArrayOutputStream()) {
+                eg.generate(null, baos);
+
+                final var name = Paths.get(eg.getOutputFilename()).getFileName().toString();
+
+                return new Result(String.format("%04d_%s", index, name), baos.toByteArray());
+            } catch (final IOException | XlsgenException | RuntimeException e) {
+                LOGGER.error("generate() : document {} failed : {}", index, e);
+
+                return new Result(String.format("%04d_error.txt", index), String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                while (mPending > 0) {
+                    writeNext();
+                }
+
+                mZip.finish();
+                mZip.flush();
+            } catch (final ZipIOException e) {
+                throw e.getCause();
+            } finally {
+                // Client gone or stream broken, do not generate for nothing
+                for (final Future<Result> f : mFutures) {
+                    f.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carry an I/O problem on the response through the documents loop
+     */
+    private static final class ZipIOException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ZipIOException(final IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
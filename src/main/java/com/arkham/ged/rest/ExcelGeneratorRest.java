@@ -10,18 +10,24 @@
  */
 package com.arkham.ged.rest;
 
-import com.arkham.ged.util.GedUtil;
 import com.arkham.ged.xlsgen.ExcelGenerator;
+import com.arkham.ged.xlsgen.GenerationServices;
 import com.arkham.ged.xlsgen.XlsgenException;
+import com.arkham.ged.xlsgen.cache.GenerationResultCache;
 import io.quarkus.runtime.annotations.RegisterForReflection;
-import io.vertx.core.http.HttpServerRequest;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
-import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.annotation.Counted;
 import org.eclipse.microprofile.metrics.annotation.Timed;
@@ -29,8 +35,10 @@ import org.jboss.resteasy.reactive.NoCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 
 /**
  * REST service for YAML => Excel transformation
@@ -55,12 +63,22 @@ public class ExcelGeneratorRest {
 
     private static final String GENERIC_MESSAGE_EXCEPTION = "generate() : {}";
 
+    @Inject
+    GenerationLimiter mLimiter;
+
+    @Inject
+    GenerationServices mServices;
+
+    @Inject
+    GenerationResultCache mCache;
+
     /**
      * REST service for YAML => Excel transformation
      *
-     * @param req The context request
-     * @param message The JSON message to unserialize
-     * @return The JSON message serialized
+     * @param ct The content type of the request, may declare the charset of the body
+     * @param inm The optional If-None-Match header, compared to the ETag of a previous response
+     * @param body The YAML body, decoded while parsing
+     * @return The workbook, written directly into the response, or 304 if the client already has it
      */
     @Path("file")
     @POST
@@ -69,35 +87,22 @@ public class ExcelGeneratorRest {
     @NoCache
     @Counted(name = "performedChecks", description = "How many primality checks have been performed.")
     @Timed(name = "checksTimer", description = "A measure of how long it takes to perform the primality test.", unit = MetricUnits.MILLISECONDS)
-    public byte[] generate(@Context final HttpServerRequest req, final String message) {
-        try {
-            // Assume UTF-8 if not specified
-            final var cs = parseCharset(req.getHeader("Content-Type"));
-
-            final var temp = Files.createTempFile("yeti_", ".yaml");
-            try (Writer w = new OutputStreamWriter(Files.newOutputStream(temp), cs)) {
-                w.write(message);
-            }
-
-            final var eg = new ExcelGenerator(temp, cs);
-            final var result = eg.generate(null);
+    @RunOnVirtualThread
+    public Response generate(@HeaderParam(HttpHeaders.CONTENT_TYPE) final String ct, @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String inm, final InputStream body) {
+        // Assume UTF-8 if not specified
+        final var cs = parseCharset(ct);
 
-            try (var is = Files.newInputStream(result.toPath()); var baos = new ByteArrayOutputStream((int) result.length())) {
-                GedUtil.copyIs2Os(is, baos, 8192);
-
-                return baos.toByteArray();
-            } finally {
-                // Clean temporary files
-                deleteFile(result);
-                Files.delete(temp);
-            }
-        } catch (final IOException | XlsgenException e) {
-            LOGGER.error(GENERIC_MESSAGE_EXCEPTION, e);
-        }
-
-        return new byte[] {};
+        return generate(new ExcelGenerator(body, cs), inm);
     }
 
+    /**
+     * REST service for YAML => Excel transformation
+     *
+     * @param ct The content type of the request, may declare the charset of the body
+     * @param inm The optional If-None-Match header, compared to the ETag of a previous response
+     * @param body The YAML body, decoded while parsing
+     * @return The workbook, written directly into the response, or 304 if the client already has it
+     */
     @Path("direct")
     @POST
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
@@ -105,26 +110,19 @@ public class ExcelGeneratorRest {
     @NoCache
     @Counted(name = "performedChecks", description = "How many primality checks have been performed.")
     @Timed(name = "checksTimer", description = "A measure of how long it takes to perform the primality test.", unit = MetricUnits.MILLISECONDS)
-    public byte[] generateDirect(final String message) {
-        try {
-            final var eg = new ExcelGenerator(message);
-            final var result = eg.generate(null);
-
-            try (var is = Files.newInputStream(result.toPath()); var baos = new ByteArrayOutputStream((int) result.length())) {
-                GedUtil.copyIs2Os(is, baos, 8192);
-
-                return baos.toByteArray();
-            } finally {
-                // Clean temporary files
-                deleteFile(result);
-            }
-        } catch (final IOException | XlsgenException e) {
-            LOGGER.error(GENERIC_MESSAGE_EXCEPTION, e);
-        }
-
-        return new byte[] {};
+    @RunOnVirtualThread
+    public Response generateDirect(@HeaderParam(HttpHeaders.CONTENT_TYPE) final String ct, @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String inm, final InputStream body) {
+        return generate(new ExcelGenerator(body, parseCharset(ct)), inm);
     }
 
+    /**
+     * REST service for YAML => Excel transformation, kept for compatibility : same behavior than {@link #generateDirect(String, String, InputStream)}
+     *
+     * @param ct The content type of the request, may declare the charset of the body
+     * @param inm The optional If-None-Match header, compared to the ETag of a previous response
+     * @param body The YAML body, decoded while parsing
+     * @return The workbook, written directly into the response, or 304 if the client already has it
+     */
     @Path("stream")
     @POST
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
@@ -132,37 +130,106 @@ public class ExcelGeneratorRest {
     @NoCache
     @Counted(name = "performedChecks", description = "How many primality checks have been performed.")
     @Timed(name = "checksTimer", description = "A measure of how long it takes to perform the primality test.", unit = MetricUnits.MILLISECONDS)
-    @SuppressWarnings("static-method")
-    public InputStream generateDirectStream(final String message) {
-        try {
-            final var eg = new ExcelGenerator(message);
-            final var result = eg.generate(null);
+    @RunOnVirtualThread
+    public Response generateDirectStream(@HeaderParam(HttpHeaders.CONTENT_TYPE) final String ct, @HeaderParam(HttpHeaders.IF_NONE_MATCH) final String inm, final InputStream body) {
+        return generate(new ExcelGenerator(body, parseCharset(ct)), inm);
+    }
 
-            return Files.newInputStream(result.toPath());
-        } catch (final IOException | XlsgenException e) {
+    /**
+     * Read the YAML, then either answer 304 if the client already has this result, or write the workbook into the response stream. The ETag
+     * is the content address of the generation, only set when the result can be cached. If the generation fails, the response is aborted.
+     *
+     * @param eg The generator
+     * @param inm The optional If-None-Match header
+     * @return The response
+     */
+    private Response generate(final ExcelGenerator eg, final String inm) {
+        final var cache = mCache.isEnabled() ? mCache : null;
+        eg.setThrottle(mLimiter.getSemaphore());
+        eg.setServices(mServices);
+        eg.setCache(cache);
+
+        final String key;
+        try {
+            key = eg.prepare();
+        } catch (final XlsgenException e) {
             LOGGER.error(GENERIC_MESSAGE_EXCEPTION, e);
+
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        final StreamingOutput so = os -> {
+            try {
+                eg.generate(null, os);
+            } catch (final XlsgenException e) {
+                LOGGER.error(GENERIC_MESSAGE_EXCEPTION, e);
+
+                // Aborts the response : never a 200 with a truncated workbook (and its ETag)
+                throw new IOException(e);
+            }
+        };
+
+        if (key == null) {
+            return Response.ok(so).build();
+        }
+
+        final var etag = new EntityTag(key);
+        // Only a result really available (so successfully generated) may be acknowledged
+        if (matches(inm, etag) && cache.contains(key)) {
+            LOGGER.info("generate() : result {} not modified", key);
+
+            return Response.notModified(etag).build();
         }
 
-        return null;
+        return Response.ok(so).tag(etag).build();
+    }
+
+    private static boolean matches(final String inm, final EntityTag etag) {
+        if (inm == null) {
+            return false;
+        }
+
+        final var expected = etag.toString();
+        for (final String value : inm.split(",")) {
+            final var v = value.trim();
+            // Weak comparison, as required for If-None-Match
+            if ("*".equals(v) || expected.equals(v.startsWith("W/") ? v.substring(2) : v)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
-     * Delete the file and log something if it's not possible for any reason
+     * Extract the charset parameter of a content type, for example <code>text/yaml; charset="ISO-8859-1"</code>
      *
-     * @param file The file to delete
+     * @param ct The content type, may be null
+     * @return The declared charset if supported, UTF-8 otherwise
      */
-    @SuppressWarnings("static-method")
-    protected void deleteFile(final File file) {
-        if (!file.delete()) {
-            LOGGER.warn("deleteFile() : cannot delete file {}", file);
+    protected static String parseCharset(final String ct) {
+        if (ct != null) {
+            for (final String param : ct.split(";")) {
+                final var idx = param.indexOf('=');
+                if (idx > 0 && "charset".equalsIgnoreCase(param.substring(0, idx).trim())) {
+                    final var cs = param.substring(idx + 1).trim().replace("\"", "");
+                    if (isSupported(cs)) {
+                        return cs;
+                    }
+
+                    LOGGER.warn("parseCharset() : unsupported charset {}, assume UTF-8", cs);
+                }
+            }
         }
+
+        return "UTF-8";
     }
 
-    private static String parseCharset(final String ct) {
-        if (ct != null && ct.indexOf('=') > 0) {
-            return ct.substring(ct.indexOf('=')).trim();
+    private static boolean isSupported(final String cs) {
+        try {
+            return Charset.isSupported(cs);
+        } catch (final IllegalCharsetNameException e) { // NOSONAR
+            return false;
         }
-
-        return "UTF-8";
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.rest;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * State of an asynchronous generation, serialized as JSON by the jobs API
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@RegisterForReflection
+public class GenerationJob {
+    /**
+     * Lifecycle of a job
+     */
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    private final String mId;
+    private final Instant mSubmitted;
+
+    private volatile Status mStatus;
+    private volatile Instant mStarted;
+    private volatile Instant mFinished;
+    private volatile String mFilename;
+    private volatile long mSize;
+    private volatile String mError;
+    private volatile Path mResult;
+
+    GenerationJob(final String id) {
+        mId = id;
+        mSubmitted = Instant.now();
+        mStatus = Status.PENDING;
+    }
+
+    void running() {
+        mStarted = Instant.now();
+        mStatus = Status.RUNNING;
+    }
+
+    void done(final Path result, final String filename, final long size) {
+        mResult = result;
+        mFilename = filename;
+        mSize = size;
+        mFinished = Instant.now();
+        mStatus = Status.DONE;
+    }
+
+    void failed(final String error) {
+        mError = error;
+        mFinished = Instant.now();
+        mStatus = Status.FAILED;
+    }
+
+    /**
+     * @return The job identifier
+     */
+    public String getId() {
+        return mId;
+    }
+
+    /**
+     * @return The current status
+     */
+    public Status getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * @return Submission time
+     */
+    public Instant getSubmitted() {
+        return mSubmitted;
+    }
+
+    /**
+     * @return Start time, null while pending
+     */
+    public Instant getStarted() {
+        return mStarted;
+    }
+
+    /**
+     * @return End time, null until done or failed
+     */
+    public Instant getFinished() {
+        return mFinished;
+    }
+
+    /**
+     * @return The name of the generated file as declared by YAML (without directory)
+     */
+    public String getFilename() {
+        return mFilename;
+    }
+
+    /**
+     * @return The size of the result in bytes
+     */
+    public long getSize() {
+        return mSize;
+    }
+
+    /**
+     * @return The error message if failed
+     */
+    public String getError() {
+        return mError;
+    }
+
+    /**
+     * @return The stored result, null until done
+     */
+    @JsonIgnore
+    public Path getResult() {
+        return mResult;
+    }
+
+    /**
+     * @return true if the job will not change anymore
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return mStatus == Status.DONE || mStatus == Status.FAILED;
+    }
+}
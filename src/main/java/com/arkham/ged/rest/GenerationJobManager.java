@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.xlsgen.ExcelGenerator;
+import com.arkham.ged.xlsgen.GenerationServices;
+import com.arkham.ged.xlsgen.XlsgenException;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Asynchronous generations : a bounded queue in front of a fixed pool of workers. The YAML is spooled under
+ * <code>bed.file.path/yeti-jobs</code> at submission, the result is stored next to it until evicted by TTL or by total size (oldest first).
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class GenerationJobManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationJobManager.class);
+
+    private static final String JOBS_DIR = "yeti-jobs";
+
+    @ConfigProperty(name = "bed.file.path")
+    String mBasePath;
+
+    /**
+     * Number of workers, 0 or less means the number of available processors
+     */
+    @ConfigProperty(name = "yeti.jobs.workers", defaultValue = "0")
+    int mWorkers;
+
+    @ConfigProperty(name = "yeti.jobs.queue-size", defaultValue = "100")
+    int mQueueSize;
+
+    @ConfigProperty(name = "yeti.jobs.ttl", defaultValue = "1h")
+    Duration mTtl;
+
+    @ConfigProperty(name = "yeti.jobs.max-size", defaultValue = "1g")
+    MemorySize mMaxSize;
+
+    @Inject
+    GenerationLimiter mLimiter;
+
+    @Inject
+    GenerationServices mServices;
+
+    private final Map<String, GenerationJob> mJobs = new ConcurrentHashMap<>();
+
+    private Path mDir;
+    private ThreadPoolExecutor mExecutor;
+    private ScheduledExecutorService mCleaner;
+
+    @PostConstruct
+    void init() {
+        mDir = Paths.get(mBasePath, JOBS_DIR);
+
+        try {
+            Files.createDirectories(mDir);
+
+            // Jobs are not persistent, files of a previous run are orphans
+            try (var files = Files.list(mDir)) {
+                files.forEach(GenerationJobManager::delete);
+            }
+        } catch (final IOException e) {
+            LOGGER.error("init() : cannot prepare jobs directory {} : {}", mDir, e);
+        }
+
+        final var workers = mWorkers > 0 ? mWorkers : Runtime.getRuntime().availableProcessors();
+        final var count = new AtomicInteger();
+        mExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(mQueueSize), r -> {
+            final var t = new Thread(r, "yeti-job-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        mCleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var t = new Thread(r, "yeti-job-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        mCleaner.scheduleWithFixedDelay(this::evict, 1, 1, TimeUnit.MINUTES);
+
+        LOGGER.info("init() : {} workers, queue of {}, results kept {} in {}", workers, mQueueSize, mTtl, mDir);
+    }
+
+    @PreDestroy
+    void destroy() {
+        mCleaner.shutdownNow();
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Spool the YAML and queue its generation
+     *
+     * @param body The YAML stream
+     * @param charset The charset of YAML encoding
+     * @return The pending job
+     * @throws IOException The YAML cannot be spooled
+     * @throws RejectedExecutionException The queue is full
+     */
+    public GenerationJob submit(final InputStream body, final String charset) throws IOException {
+        final var job = new GenerationJob(UUID.randomUUID().toString());
+        final var input = mDir.resolve(job.getId() + ".yaml");
+
+        Files.copy(body, input);
+
+        mJobs.put(job.getId(), job);
+        try {
+            mExecutor.execute(() -> run(job, input, charset));
+        } catch (final RejectedExecutionException e) {
+            mJobs.remove(job.getId());
+            delete(input);
+            throw e;
+        }
+
+        LOGGER.info("submit() : job {} queued", job.getId());
+
+        return job;
+    }
+
+    /**
+     * @param id The job identifier
+     * @return The job, null if unknown or evicted
+     */
+    public GenerationJob get(final String id) {
+        return mJobs.get(id);
+    }
+
+    private void run(final GenerationJob job, final Path input, final String charset) {
+        job.running();
+
+        final var result = mDir.resolve(job.getId() + ".result");
+        try {
+            final var eg = new ExcelGenerator(input, charset);
+            eg.setThrottle(mLimiter.getSemaphore());
+            eg.setServices(mServices);
+
+            try (var os = Files.newOutputStream(result)) {
+                eg.generate(null, os);
+            }
+
+            final var filename = Paths.get(eg.getOutputFilename()).getFileName().toString();
+            job.done(result, filename, Files.size(result));
+
+            LOGGER.info("run() : job {} done, {} bytes", job.getId(), job.getSize());
+
+            // Size limit is checked as soon as the store grows
+            mCleaner.execute(this::evict);
+        } catch (final IOException | XlsgenException | RuntimeException e) {
+            LOGGER.error("run() : job {} failed : {}", job.getId(), e);
+
+            job.failed(e.getMessage());
+            delete(result);
+        } finally {
+            delete(input);
+        }
+    }
+
+    /**
+     * Remove finished jobs older than TTL, then the oldest ones while the store is over its maximum size
+     */
+    void evict() {
+        final var limit = Instant.now().minus(mTtl);
+        for (final GenerationJob job : mJobs.values()) {
+            if (job.isFinished() && job.getFinished().isBefore(limit)) {
+                remove(job);
+            }
+        }
+
+        final var done = mJobs.values().stream().filter(j -> j.getStatus() == GenerationJob.Status.DONE).sorted(Comparator.comparing(GenerationJob::getFinished)).collect(Collectors.toList());
+
+        var total = done.stream().mapToLong(GenerationJob::getSize).sum();
+        final var max = mMaxSize.asLongValue();
+        for (final GenerationJob job : done) {
+            if (total <= max) {
+                break;
+            }
+
+            total -= job.getSize();
+            remove(job);
+        }
+    }
+
+    private void remove(final GenerationJob job) {
+        LOGGER.info("remove() : evicting job {}", job.getId());
+
+        mJobs.remove(job.getId());
+        if (job.getResult() != null) {
+            delete(job.getResult());
+        }
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.warn("delete() : cannot delete file {} : {}", path, e.getMessage());
+        }
+    }
+}
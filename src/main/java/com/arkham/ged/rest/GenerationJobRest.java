@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.arkham.ged.util.GedUtil;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.jboss.resteasy.reactive.NoCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_1;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_2;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_3;
+import static com.arkham.ged.rest.ExcelGeneratorRest.CT_YAML_4;
+
+/**
+ * REST service for asynchronous YAML => Excel transformation : submit, poll the status, then download the result
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@RegisterForReflection
+@ApplicationScoped
+@Path("jobs")
+public class GenerationJobRest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationJobRest.class);
+
+    /**
+     * Delay proposed to clients when the queue is full, in seconds
+     */
+    private static final int RETRY_AFTER = 30;
+
+    @Inject
+    GenerationJobManager mManager;
+
+    /**
+     * Queue a generation, the job is returned immediately
+     *
+     * @param ct The content type of the request, may declare the charset of the body
+     * @param body The YAML body
+     * @return 202 with the job and its location, 503 if the queue is full
+     */
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({ CT_YAML_1, CT_YAML_2, CT_YAML_3, CT_YAML_4, MediaType.APPLICATION_JSON })
+    @NoCache
+    @RunOnVirtualThread
+    public Response submit(@HeaderParam(HttpHeaders.CONTENT_TYPE) final String ct, final InputStream body) {
+        try {
+            final var job = mManager.submit(body, ExcelGeneratorRest.parseCharset(ct));
+
+            return Response.accepted(job).location(URI.create("jobs/" + job.getId())).build();
+        } catch (final RejectedExecutionException e) { // NOSONAR
+            LOGGER.warn("submit() : queue is full, job rejected");
+
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER).build();
+        } catch (final IOException e) {
+            LOGGER.error("submit() : {}", e);
+
+            return Response.serverError().build();
+        }
+    }
+
+    /**
+     * @param id The job identifier
+     * @return The job, 404 if unknown or evicted
+     */
+    @Path("{id}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @NoCache
+    public Response status(@PathParam("id") final String id) {
+        final var job = mManager.get(id);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        return Response.ok(job).build();
+    }
+
+    /**
+     * @param id The job identifier
+     * @return The generated workbook, 404 if unknown or evicted, 409 with the job if not done
+     */
+    @Path("{id}/result")
+    @GET
+    @Produces({ MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON })
+    @NoCache
+    @RunOnVirtualThread
+    public Response result(@PathParam("id") final String id) {
+        final var job = mManager.get(id);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (job.getStatus() != GenerationJob.Status.DONE) {
+            return Response.status(Response.Status.CONFLICT).entity(job).type(MediaType.APPLICATION_JSON_TYPE).build();
+        }
+
+        // Opened before answering : an eviction can no longer remove the file between the headers and the body
+        final FileChannel fc;
+        final long size;
+        try {
+            fc = FileChannel.open(job.getResult(), StandardOpenOption.READ);
+            size = fc.size();
+        } catch (final NoSuchFileException e) { // NOSONAR
+            LOGGER.warn("result() : result of job {} has been evicted", id);
+
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch (final IOException e) {
+            LOGGER.error("result() : {}", e);
+
+            return Response.serverError().build();
+        }
+
+        final StreamingOutput so = os -> {
+            try (fc; var is = Channels.newInputStream(fc)) {
+                GedUtil.copyIs2Os(is, os, 8192);
+            }
+        };
+
+        return Response.ok(so, MediaType.APPLICATION_OCTET_STREAM_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(job.getFilename()))
+                .header(HttpHeaders.CONTENT_LENGTH, size)
+                .build();
+    }
+
+    /**
+     * Attachment header of RFC 6266 : an ASCII <code>filename</code> for old clients, the exact name in <code>filename*</code> (RFC 5987)
+     *
+     * @param filename The name of the generated file
+     * @return The value of Content-Disposition
+     */
+    static String contentDisposition(final String filename) {
+        final var ascii = new StringBuilder();
+        final var encoded = new StringBuilder();
+
+        // Quotes, backslashes and control characters would break the header
+        final var clean = filename.codePoints().filter(c -> c >= 0x20 && c != 0x7F && c != '"' && c != '\\' && !Character.isISOControl(c)).collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+
+        for (final byte b : clean.getBytes(StandardCharsets.UTF_8)) {
+            final var c = b & 0xFF;
+            if (c < 0x80) {
+                ascii.append((char) c);
+            } else if ((c & 0xC0) != 0x80) {
+                // First byte of a multi-byte character
+                ascii.append('_');
+            }
+
+            if (isAttrChar(c)) {
+                encoded.append((char) c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16))).append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+
+        return "attachment; filename=\"" + ascii + "\"; filename*=UTF-8''" + encoded;
+    }
+
+    private static boolean isAttrChar(final int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || "!#$&+-.^_`|~".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.rest;
+
+import java.util.concurrent.Semaphore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limit the number of Excel generations that may be CPU-active at once. Requests may be numerous (one virtual thread each), waiting for
+ * models or writing responses, but only <code>yeti.generation.max-active</code> of them are building workbooks at the same time.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class GenerationLimiter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationLimiter.class);
+
+    /**
+     * Max active generations, 0 or less means the number of available processors
+     */
+    @ConfigProperty(name = "yeti.generation.max-active", defaultValue = "0")
+    int mMaxActive;
+
+    private Semaphore mSemaphore;
+
+    @PostConstruct
+    void init() {
+        final var permits = mMaxActive > 0 ? mMaxActive : Runtime.getRuntime().availableProcessors();
+        mSemaphore = new Semaphore(permits, true);
+
+        LOGGER.info("init() : {} generations may be active at once", permits);
+    }
+
+    /**
+     * @return The shared semaphore, given to each generator
+     */
+    public Semaphore getSemaphore() {
+        return mSemaphore;
+    }
+}
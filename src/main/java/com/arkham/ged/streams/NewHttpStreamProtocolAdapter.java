@@ -23,39 +23,108 @@ public class NewHttpStreamProtocolAdapter extends AbstractStreamProtocolAdapter<
     protected static final String HEADER_CONTENTTYPE = "Content-Type";
     protected static final String HEADER_CONTENTDISPOSITION = "Content-Disposition";
 
+    protected static final String HEADER_ETAG = "ETag";
+    protected static final String HEADER_LASTMODIFIED = "Last-Modified";
+    protected static final String HEADER_IFNONEMATCH = "If-None-Match";
+    protected static final String HEADER_IFMODIFIEDSINCE = "If-Modified-Since";
+
+    /**
+     * Thread safe, shared : connections are kept alive between requests
+     */
+    /* @formatter:off */
+    private static final HttpClient CLIENT = HttpClient.newBuilder().
+            connectTimeout(Duration.ofSeconds(5)).
+            followRedirects(Redirect.ALWAYS).
+            build();
+    /* @formatter:on */
+
+    private String mIfNoneMatch;
+    private String mIfModifiedSince;
+    private String mETag;
+    private String mLastModified;
+
     NewHttpStreamProtocolAdapter(final String value) {
         super(value);
     }
 
+    /**
+     * Conditional GET : if the resource has not changed, the status code is 304 and the stream is empty
+     *
+     * @param etag The ETag of the known version, may be null
+     * @param lastModified The Last-Modified date of the known version, may be null
+     */
+    public void setValidators(final String etag, final String lastModified) {
+        mIfNoneMatch = etag;
+        mIfModifiedSince = lastModified;
+    }
+
+    /**
+     * @return The ETag of the response, null if none
+     */
+    public String getETag() {
+        return mETag;
+    }
+
+    /**
+     * @return The Last-Modified date of the response, null if none
+     */
+    public String getLastModified() {
+        return mLastModified;
+    }
+
+    @SuppressWarnings("resource")
     @Override
     public InputStream getStream() throws StreamProtocolException {
         final var url = getValue();
         try {
             /* @formatter:off */
-            final HttpRequest request = HttpRequest.newBuilder().
+            final var builder = HttpRequest.newBuilder().
                     timeout(Duration.ofSeconds(5)).
                     uri(new URI(url)).
-                    header(HEADER_CONNECTION, "Keep-Alive").
                     header(HEADER_USERAGENT, "Java client").
-                    GET().
-                    build();
-
-            final HttpClient client = HttpClient.newBuilder().
-                    connectTimeout(Duration.ofSeconds(5)).
-                    followRedirects(Redirect.ALWAYS).
-                    build();
+                    GET();
             /* @formatter:on */
+            if (mIfNoneMatch != null) {
+                builder.header(HEADER_IFNONEMATCH, mIfNoneMatch);
+            }
+            if (mIfModifiedSince != null) {
+                builder.header(HEADER_IFMODIFIEDSINCE, mIfModifiedSince);
+            }
 
-            final var response = client.send(request, BodyHandlers.ofInputStream());
+            final var response = CLIENT.send(builder.build(), BodyHandlers.ofInputStream());
 
             setStatusCode(response.statusCode());
+            mETag = response.headers().firstValue(HEADER_ETAG).orElse(null);
+            mLastModified = response.headers().firstValue(HEADER_LASTMODIFIED).orElse(null);
+            setStreamName(getStreamName(response.uri(), response.headers().firstValue(HEADER_CONTENTDISPOSITION).orElse(null)));
+            setStream(response.body());
 
             return response.body();
-        } catch (final URISyntaxException | IOException | InterruptedException e) {
+        } catch (final URISyntaxException | IOException e) {
+            throw new StreamProtocolException(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new StreamProtocolException(e);
         }
     }
 
+    /**
+     * @return The file name given by the server, else the last segment of the path (for its extension)
+     */
+    private static String getStreamName(final URI uri, final String contentDisposition) {
+        final var filename = getFilename(contentDisposition);
+        if (filename != null) {
+            return filename;
+        }
+
+        final var path = uri.getPath();
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
     @SuppressWarnings("unused")
     private static String getContentType(final String contentType) {
         if (contentType == null) {
@@ -84,7 +153,6 @@ public class NewHttpStreamProtocolAdapter extends AbstractStreamProtocolAdapter<
         return DEFAULT_CHARSET;
     }
 
-    @SuppressWarnings("unused")
     private static String getFilename(final String contentDisposition) {
         if (contentDisposition == null) {
             return null;
@@ -67,7 +67,7 @@ public final class StreamProtocolFactory {
      * @param filepath The filepath with scheme
      * @return The real file path
      */
-    private static String getValue(final String filepath) {
+    public static String getValue(final String filepath) {
         final var i = filepath.indexOf(':');
         if (i > 0) {
             return filepath.substring(i + 1);
@@ -10,7 +10,6 @@
  */
 package com.arkham.ged.util;
 
-import java.awt.GraphicsEnvironment;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
@@ -41,14 +40,14 @@ public final class GedImage {
         destWidth = (int) (destWidth / ratio);
         destHeight = (int) (destHeight / ratio);
 
-        // créer l'image de destination
-        final var configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-        final var bImageNew = configuration.createCompatibleImage(destWidth, destHeight);
+        // créer l'image de destination : sans écran (headless), pas de configuration graphique à laquelle demander une image compatible
+        final var type = bImage.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        final var bImageNew = new BufferedImage(Math.max(1, destWidth), Math.max(1, destHeight), type);
         final var graphics = bImageNew.createGraphics();
         graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         // dessiner l'image de destination
-        graphics.drawImage(bImage, 0, 0, destWidth, destHeight, 0, 0, bImage.getWidth(), bImage.getHeight(), null);
+        graphics.drawImage(bImage, 0, 0, bImageNew.getWidth(), bImageNew.getHeight(), 0, 0, bImage.getWidth(), bImage.getHeight(), null);
         graphics.dispose();
 
         return bImageNew;
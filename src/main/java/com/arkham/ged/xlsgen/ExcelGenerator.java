@@ -10,9 +10,13 @@
  */
 package com.arkham.ged.xlsgen;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.Charset;
@@ -20,47 +24,73 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.sql.Connection;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
+import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.poi.common.usermodel.HyperlinkType;
 import org.apache.poi.ss.formula.FormulaParseException;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.arkham.common.solver.expr.ExprException;
-import com.arkham.common.solver.expr.ExprSolver;
 import com.arkham.ged.message.GedMessages;
+import com.arkham.ged.streams.GED_PROTOCOL;
 import com.arkham.ged.streams.StreamProtocolAdapter;
 import com.arkham.ged.streams.StreamProtocolException;
-import com.arkham.ged.streams.StreamProtocolFactory;
 import com.arkham.ged.util.GedUtil;
 import com.arkham.ged.xlsgen.builder.ExcelMetadataBuilder;
 import com.arkham.ged.xlsgen.builder.ExcelStyleBuilder;
+import com.arkham.ged.xlsgen.cache.GenerationKey;
+import com.arkham.ged.xlsgen.cache.GenerationResultCache;
+import com.arkham.ged.xlsgen.cache.SingleFlight;
+import com.arkham.ged.xlsgen.expr.CompiledExpr;
+import com.arkham.ged.xlsgen.expr.CompiledValue;
+import com.arkham.ged.xlsgen.expr.ExprCache;
+import com.arkham.ged.xlsgen.expr.ExprEvaluator;
 import com.arkham.ged.xlsgen.function.XlsgenExprValueProvider;
-import com.arkham.ged.xlsgen.transformer.DateInnerTransformer;
+import com.arkham.ged.xlsgen.plan.CompiledCell;
+import com.arkham.ged.xlsgen.plan.CompiledRow;
+import com.arkham.ged.xlsgen.plan.ExecutionPlan;
+import com.arkham.ged.xlsgen.plan.ExecutionPlanCompiler;
 import com.arkham.ged.xlsgen.transformer.DateTransformer;
-import com.arkham.ged.xlsgen.transformer.DateZnTransformer;
-import com.arkham.ged.xlsgen.transformer.ITransformer;
 import com.arkham.ged.xlsgen.transformer.NumberTransformer;
 import com.arkham.ged.xlsgen.types.AlignmentTypeDeserializer;
 import com.arkham.ged.xlsgen.types.BorderStyleTypeDeserializer;
@@ -74,15 +104,20 @@ import com.arkham.ged.xlsgen.types.UnderlineTypeDeserializer;
 import com.arkham.ged.xlsgen.types.VerticalAlignmentTypeDeserializer;
 import com.arkham.ged.xlsgen.util.AddDimensionedImage;
 import com.arkham.ged.xlsgen.util.AddImage;
+import com.arkham.ged.xlsgen.util.ColumnWidthEstimator;
 import com.arkham.ged.xlsgen.util.ExcelUtil;
-import com.arkham.ged.xlsgen.util.ExprSplitter;
-import com.arkham.ged.xlsgen.util.ExprSplitterBean;
+import com.arkham.ged.xlsgen.util.FormulaCopier;
+import com.arkham.ged.xlsgen.util.MergedRegions;
+import com.arkham.ged.xlsgen.util.PictureRegistry;
+import com.arkham.ged.xlsgen.util.RowShiftLog;
+import com.arkham.ged.xlsgen.util.SheetOccupancy;
 import com.arkham.ged.yaml.AlignmentType;
 import com.arkham.ged.yaml.BodyType;
 import com.arkham.ged.yaml.BorderStyleType;
 import com.arkham.ged.yaml.CellType;
 import com.arkham.ged.yaml.CellValueType;
 import com.arkham.ged.yaml.FillType;
+import com.arkham.ged.yaml.GeneralType;
 import com.arkham.ged.yaml.GroupType;
 import com.arkham.ged.yaml.HeaderType;
 import com.arkham.ged.yaml.ImageBehaviorType;
@@ -90,7 +125,6 @@ import com.arkham.ged.yaml.ModeBehaviorType;
 import com.arkham.ged.yaml.PostType;
 import com.arkham.ged.yaml.RootExcel;
 import com.arkham.ged.yaml.RowModeType;
-import com.arkham.ged.yaml.RowType;
 import com.arkham.ged.yaml.TabType;
 import com.arkham.ged.yaml.UnderlineType;
 import com.arkham.ged.yaml.VerticalAlignmentType;
@@ -106,19 +140,18 @@ import org.yaml.snakeyaml.LoaderOptions;
 public class ExcelGenerator implements FunctionValueProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExcelGenerator.class);
 
+    private static final TypeReference<List<TabType>> TAB_LIST = new TypeReference<>() {
+    };
+
     /**
-     * Date transformer
+     * Adjustment of widths estimated from font metrics, see {@link ColumnWidthEstimator}
      */
-    private static final ITransformer DT = new DateTransformer();
-
-    private static final ITransformer DTZN = new DateZnTransformer();
-
-    private static final ITransformer DTINNER = new DateInnerTransformer();
+    private static final String FAST = "fast";
 
     /**
-     * Numeric string to double transformer (optimus prime)
+     * Thread safe once configured : deserializers are introspected only once
      */
-    private static final ITransformer NT = new NumberTransformer();
+    private static final ObjectMapper MAPPER = createMapper();
 
     /**
      * Either a file to parse in the given charset, either directly the message
@@ -131,12 +164,22 @@ public class ExcelGenerator implements FunctionValueProvider {
      */
     private String mMessage;
 
+    /**
+     * YAML stream, decoded in the given charset while parsing
+     */
+    private InputStream mStream;
+
+    /**
+     * YAML document already parsed as a tree, for example one document of a batch
+     */
+    private JsonNode mTree;
+
     private String mAuthor;
 
     private final ExcelUtil mEu;
     private ExcelStyleBuilder mEsb;
 
-    private ExprSolver mEs;
+    private ExprEvaluator mEs;
 
     private final ErrorAppender mEa;
 
@@ -145,6 +188,56 @@ public class ExcelGenerator implements FunctionValueProvider {
      */
     private ModeBehaviorType mReportMode;
 
+    /**
+     * In streaming, the current sheet as XSSF : rows of the model are only reachable from it. Null if not streaming.
+     */
+    private XSSFSheet mModelSheet;
+
+    /**
+     * Date system of the workbook, for dates written as serial numbers
+     */
+    private boolean mDate1904;
+
+    /**
+     * Formulas of copied rows, parsed once for the generation
+     */
+    private FormulaCopier mFormulas;
+
+    /**
+     * Pictures of the workbook by content, an image repeated on many rows is stored once
+     */
+    private PictureRegistry mPictures;
+
+    /**
+     * Merged regions of the current sheet, validated once the sheet is done
+     */
+    private MergedRegions mMerged;
+
+    /**
+     * Non empty cells of the current sheet for find(), built at its first call
+     */
+    private SheetOccupancy mOccupancy;
+
+    /**
+     * Pending row insertions of the current body, null outside of a body and in streaming
+     */
+    private RowShiftLog mShifts;
+
+    /**
+     * Styles of the current workbook, indexed as in the execution plan
+     */
+    private CellStyle[] mStyles;
+
+    /**
+     * The compiled YAML
+     */
+    private ExecutionPlan mPlan;
+
+    /**
+     * Tabs read while generating, when the YAML asks for streaming. Null otherwise.
+     */
+    private StreamingYamlReader mYamlTabs;
+
     /**
      * Current workbook
      */
@@ -165,6 +258,33 @@ public class ExcelGenerator implements FunctionValueProvider {
      */
     private Map<String, String> mProperties;
 
+    /**
+     * Name of the generated file, known once the YAML is read
+     */
+    private String mOutputFilename;
+
+    /**
+     * The YAML once read, its digest and the matching cache key (null if not cacheable)
+     */
+    private RootExcel mRoot;
+    private byte[] mDigest;
+    private String mKey;
+
+    /**
+     * Optional result cache
+     */
+    private GenerationResultCache mCache;
+
+    /**
+     * Optional limiter shared between generators, a permit is held while the workbook is built
+     */
+    private Semaphore mThrottle;
+
+    /**
+     * Caches, prefetch and policies shared between generators
+     */
+    private GenerationServices mServices;
+
     /**
      * Constructor ExcelGenerator
      *
@@ -189,6 +309,31 @@ public class ExcelGenerator implements FunctionValueProvider {
         mMessage = message;
     }
 
+    /**
+     * Constructor ExcelGenerator. The stream is decoded while parsing, it's closed once the YAML is read
+     *
+     * @param is The YAML stream, for example a request body
+     * @param charset The charset of YAML encoding, UTF-8 if null
+     */
+    public ExcelGenerator(final InputStream is, final String charset) {
+        this();
+
+        mStream = is;
+        mCharset = charset;
+    }
+
+    /**
+     * Constructor ExcelGenerator
+     *
+     * @param tree The YAML document, already parsed
+     * @see #readDocuments(Reader)
+     */
+    public ExcelGenerator(final JsonNode tree) {
+        this();
+
+        mTree = tree;
+    }
+
     /**
      * Private constructor ExcelGenerator
      */
@@ -210,6 +355,23 @@ public class ExcelGenerator implements FunctionValueProvider {
         return GedUtil.suffixFilename(re.getGeneral().getModel(), "_processed");
     }
 
+    /**
+     * @param re The general information about YAML
+     * @return The output filename, should ever generate with the same file extension than the source file
+     */
+    private static String getTargetFilename(final RootExcel re) {
+        final var ext = GedUtil.getFileExtension(re.getGeneral().getModel());
+
+        return GedUtil.replaceFileExtension(getOutputFilename(re), ext);
+    }
+
+    /**
+     * @return The name of the generated file (as declared by YAML), available once the YAML is read by a generate method
+     */
+    public String getOutputFilename() {
+        return mOutputFilename;
+    }
+
     private HyperlinkType getLinkProtocol(final String link) {
         if (link != null) {
             try {
@@ -235,9 +397,9 @@ public class ExcelGenerator implements FunctionValueProvider {
         return null;
     }
 
-    private static ExprSolver createSolver(final FunctionValueProvider fvp) {
+    private static ExprEvaluator createSolver(final FunctionValueProvider fvp, final ExprCache cache) {
         final var vp = new XlsgenExprValueProvider(fvp);
-        return new ExprSolver(vp);
+        return new ExprEvaluator(vp, cache);
     }
 
     private int getIntSolved(final String expr) {
@@ -256,69 +418,117 @@ public class ExcelGenerator implements FunctionValueProvider {
     }
 
     private String getStringSolved(final String expr) {
-        if (expr == null) {
-            return null;
+        return getStringSolved(mServices.getExprCache().compile(expr), expr);
+    }
+
+    /**
+     * @param cv The compiled value, null if the value contains no expression
+     * @param value The raw value
+     * @return The value with solved expressions
+     */
+    private String getStringSolved(final CompiledValue cv, final String value) {
+        if (cv == null) {
+            // Nothing to solve, same result than the splitter for a blank value
+            return value == null || !value.isBlank() ? value : "";
         }
 
-        final var splitter = new ExprSplitter(expr);
-        final var esb = splitter.getSplitted();
         final var result = new StringBuilder();
-        for (final ExprSplitterBean b : esb) {
-            if (b.isIsExpr()) {
+        for (var i = 0; i < cv.size(); i++) {
+            final var part = cv.getPart(i);
+            if (part instanceof CompiledExpr ce) {
                 try {
-                    final var o = mEs.solve(b.getExpr());
+                    final var o = mEs.solve(ce);
                     if (o != null) {
                         result.append(o);
                     }
                 } catch (final ExprException e) {
-                    processException(e, "getStringSolved() : unable to solve expression=\"{}\" because of exception={}", b.getExpr(), e);
+                    processException(e, "getStringSolved() : unable to solve expression=\"{}\" because of exception={}", ce.getText(), e);
                 }
             } else {
-                result.append(b.getExpr());
+                result.append(part);
             }
         }
 
         return result.toString();
     }
 
-    private void updateCell(final Cell cell, final CellType ct) {
+    /**
+     * @param id The style index in the plan, -1 if none
+     * @return The style of the workbook, null if none
+     */
+    private CellStyle getStyle(final int id) {
+        if (id < 0) {
+            return null;
+        }
+
+        if (id >= mStyles.length) {
+            // New style name in a streamed row
+            mStyles = mPlan.bind(mEsb);
+        }
+
+        return mStyles[id];
+    }
+
+    private void updateCell(final Cell cell, final CompiledCell cc) {
         // Convenient test : the cell should never be null at this point
         if (cell == null) {
             return;
         }
 
+        final var ct = cc.getSource();
+        final var shape = cc.getShape();
+
         // Create a link on the cell, independently of cell value (see above for types of hyperlinks)
         applyLink(cell, ct);
-        // Apply the style
-        applyStyle(cell, ct.getStyle());
+        // Apply the style, already resolved
+        final var cs = getStyle(cc.getStyleId());
+        if (cs != null) {
+            cell.setCellStyle(cs);
+        }
 
         final var value = ct.getValue();
         Object o = value;
 
-        switch (ct.getType()) {
+        switch (shape.getType()) {
             case NUMERIC:
-                o = mEu.cast(String.class, NT, value);
+                if (ExcelUtil.isBlank(value)) {
+                    o = "";
+                } else if (shape.getTransformer() instanceof final NumberTransformer nt) {
+                    // Primitive path, nothing boxed
+                    cell.setCellValue(nt.toDouble(value));
+                    return;
+                } else {
+                    // Transformer registered by a plugin
+                    o = shape.getTransformer().transform(value);
+                }
                 break;
             case DATE:
-                o = mEu.cast(String.class, DT, value);
-                break;
             case DATEZN:
-                o = mEu.cast(String.class, DTZN, value);
-                break;
             case DATEINNER:
-                o = mEu.cast(String.class, DTINNER, value);
+                if (ExcelUtil.isBlank(value)) {
+                    o = "";
+                } else if (shape.getTransformer() instanceof final DateTransformer dt) {
+                    final var serial = dt.toSerial(value, mDate1904);
+                    if (!Double.isNaN(serial)) {
+                        cell.setCellValue(serial);
+                        return;
+                    }
+                    o = "";
+                } else {
+                    o = shape.getTransformer().transform(value);
+                }
                 break;
             case STRING:
-                o = getStringSolved(value);
+                o = getStringSolved(cc.getParts(), value);
                 break;
             case FORMULA:
-                applyFormula(cell, getStringSolved(value));
+                applyFormula(cell, getStringSolved(cc.getParts(), value));
                 break;
             case URL:
             case FILE:
             case EMAIL:
                 // Map POI hyperlinks from ged type : are the same, not a problem
-                final var link = mEsb.getHelper().createHyperlink(HyperlinkType.valueOf(ct.getType().toString()));
+                final var link = mEsb.getHelper().createHyperlink(HyperlinkType.valueOf(shape.getType().toString()));
                 link.setAddress(value.trim());
                 cell.setHyperlink(link);
                 break;
@@ -326,7 +536,7 @@ public class ExcelGenerator implements FunctionValueProvider {
                 break;
         }
 
-        if (ct.getType() != CellValueType.FORMULA) {
+        if (shape.getType() != CellValueType.FORMULA) {
             mEu.setCellValue(cell, o);
         }
     }
@@ -365,7 +575,8 @@ public class ExcelGenerator implements FunctionValueProvider {
     private void applyFormula(final Cell cell, final String formula) {
         if (formula != null && cell != null) {
             try {
-                cell.setCellFormula(formula);
+                // Body rows while a gap is open : references moved with the rows
+                mFormulas.write(cell, formula);
             } catch (final FormulaParseException e) { // NOSONAR
                 processException(e, "applyFormula({}) : formula \"{}\" is invalid, probably because of range : {}", getSheetName(), formula, e.getMessage());
 
@@ -432,10 +643,11 @@ public class ExcelGenerator implements FunctionValueProvider {
             final var cr = new CellReference(ct.getRef());
 
             if (it != null && cr.getCol() >= 0 && cr.getRow() >= 0) {
-                try (final var spa = StreamProtocolFactory.create(it.getValue(), con)) {
-                    @SuppressWarnings("resource")
-                    final var is = spa.getStream(); // need to get the stream before the filename (else null depending on SPA type)
-                    final var ext = GedUtil.getFileExtension(spa.getStreamName());
+                try {
+                    // Same image from a generation to another : read once, revalidated
+                    final var resource = mServices.getFetchCache().read(it.getValue(), con);
+                    final var is = new ByteArrayInputStream(resource.getBytes());
+                    final var ext = GedUtil.getFileExtension(resource.getStreamName());
                     var imageFormat = -1;
                     if ("png".equalsIgnoreCase(ext)) {
                         imageFormat = Workbook.PICTURE_TYPE_PNG;
@@ -445,10 +657,10 @@ public class ExcelGenerator implements FunctionValueProvider {
 
                     if (imageFormat != -1) {
                         if (it.getBehavior() == ImageBehaviorType.LETITBE) {
-                            final var ai = new AddImage(sheet);
+                            final var ai = new AddImage(sheet, mPictures);
                             ai.addImageToSheet(cr, is, it.getWidth(), it.getHeight(), it.getBehavior(), imageFormat);
                         } else {
-                            final var adi = new AddDimensionedImage(sheet);
+                            final var adi = new AddDimensionedImage(sheet, mPictures);
                             adi.addImageToSheet(cr.getCol(), cr.getRow(), is, it.getWidth(), it.getHeight(), it.getBehavior(), imageFormat);
                         }
                     } else {
@@ -461,16 +673,17 @@ public class ExcelGenerator implements FunctionValueProvider {
         }
     }
 
-    private static void applyColspan(final Sheet sheet, final int col, final int row, final Integer colspan) {
+    private void applyColspan(final int col, final int row, final Integer colspan) {
         if (colspan != null && colspan > 1) {
             final var coltarget = col - 1 + colspan;
             final var r = new CellRangeAddress(row, row, col, coltarget);
 
             if (LOGGER.isInfoEnabled()) {
-                LOGGER.info("applyColspan() : merging region {} => {}, {}, {}, {}", r.formatAsString(sheet.getSheetName(), false), Integer.valueOf(row), Integer.valueOf(row), Integer.valueOf(col), Integer.valueOf(coltarget));
+                LOGGER.info("applyColspan() : merging region {} => {}, {}, {}, {}", r.formatAsString(mSheet.getSheetName(), false), Integer.valueOf(row), Integer.valueOf(row), Integer.valueOf(col), Integer.valueOf(coltarget));
             }
 
-            sheet.addMergedRegion(new CellRangeAddress(row, row, col, coltarget));
+            // Refused if it overlaps another one, reported once the sheet is done, see applyTab()
+            mMerged.add(r);
         }
     }
 
@@ -481,18 +694,114 @@ public class ExcelGenerator implements FunctionValueProvider {
      * @throws XlsgenException Escalation from IOException
      */
     private RootExcel readYaml() throws XlsgenException {
-        if (mMessage == null && mPath == null) {
+        if (mMessage == null && mPath == null && mStream == null && mTree == null) {
             throw new XlsgenException(GedMessages.Xls.badMessageException);
         }
 
-        try (var reader = mMessage != null ? new StringReader(mMessage) : new InputStreamReader(Files.newInputStream(mPath), Charset.forName(mCharset))) {
-            return readYaml(reader);
+        // Content address of the YAML, computed while reading
+        final var md = GenerationKey.newDigest();
+
+        if (mTree != null) {
+            md.update(mTree.toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                final RootExcel re = yamlReader().forType(RootExcel.class).readValue(mTree);
+                mDigest = md.digest();
+
+                return re;
+            } catch (final IOException e) {
+                throw new XlsgenException(e);
+            }
+        }
+
+        final Reader reader;
+        try {
+            reader = createReader(md);
+        } catch (final IOException e) {
+            throw new XlsgenException(e);
+        }
+
+        try {
+            final var re = readYaml(reader);
+            if (mYamlTabs == null) {
+                reader.close();
+                mDigest = md.digest();
+            }
+
+            return re;
         } catch (final IOException e) {
+            closeQuietly(reader);
             throw new XlsgenException(e);
         }
     }
 
+    private Reader createReader(final MessageDigest md) throws IOException {
+        if (mMessage != null) {
+            md.update(mMessage.getBytes(StandardCharsets.UTF_8));
+
+            return new StringReader(mMessage);
+        }
+
+        final var cs = mCharset == null ? StandardCharsets.UTF_8 : Charset.forName(mCharset);
+        if (mStream != null) {
+            return new InputStreamReader(new DigestInputStream(mStream, md), cs);
+        }
+
+        return new InputStreamReader(new DigestInputStream(Files.newInputStream(mPath), md), cs);
+    }
+
+    /**
+     * Read the YAML. Tabs are bound directly from the parser ; if <code>general</code> asks for streaming, reading stops at the tabs and goes
+     * on while generating (see {@link StreamingYamlReader}). A YAML given as stream (a request body) is always read entirely here, before
+     * any permit of the throttle is taken : spool it first (asynchronous jobs) to stream its tabs.
+     *
+     * @param reader The YAML stream, left open if the tabs are streamed
+     * @return The root, without tabs if they are streamed
+     * @throws IOException Exception while reading
+     */
     private RootExcel readYaml(final Reader reader) throws IOException {
+        final var or = yamlReader();
+        final var parser = or.createParser(reader);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return or.forType(RootExcel.class).readValue(parser);
+        }
+
+        // Everything but tabs is small : kept as tree until the end
+        final var head = JsonNodeFactory.instance.objectNode();
+        final List<TabType> tabs = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var name = parser.currentName();
+            parser.nextToken();
+
+            if ("tab".equals(name) && parser.currentToken() == JsonToken.START_ARRAY) {
+                // Not for a request body : a permit of the throttle would be held while a slow client sends its tabs
+                if (head.path("general").path("streaming").asBoolean(false) && mStream == null) {
+                    LOGGER.info("readYaml() : tabs are read while generating");
+
+                    mYamlTabs = new StreamingYamlReader(or, parser);
+                    return or.forType(RootExcel.class).readValue(head);
+                }
+
+                tabs.addAll(or.forType(TAB_LIST).<List<TabType>> readValue(parser));
+            } else {
+                head.set(name, parser.readValueAsTree());
+            }
+        }
+
+        final RootExcel re = or.forType(RootExcel.class).readValue(head);
+        re.getTab().addAll(tabs);
+
+        return re;
+    }
+
+    private static void closeQuietly(final Closeable c) {
+        try {
+            c.close();
+        } catch (final IOException e) {
+            LOGGER.warn("closeQuietly() : cannot close stream : {}", e.getMessage());
+        }
+    }
+
+    private static YAMLFactory createFactory() {
         // Fonctionnalité inopérante avec le parser YAML (snake). Une exception est levée systématiquement, sans possibilité
         // d'intervenir sur la gravité du truc (change caractère de remplacement, ce qui m'irait très très bien).
         // org.yaml.snakeyaml.reader.StreamReader
@@ -503,23 +812,45 @@ public class ExcelGenerator implements FunctionValueProvider {
         // builder.enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS); // NOSONAR
         // builder.enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES); // NOSONAR
         // builder.enable(JsonReadFeature.ALLOW_YAML_COMMENTS); // NOSONAR
-        final var factory = builder.build();
-        final var mapper = new ObjectMapper(factory);
+        return builder.build();
+    }
+
+    private static ObjectMapper createMapper() {
+        final var mapper = new ObjectMapper(createFactory());
         mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
         final var module = new SimpleModule();
-        module.addDeserializer(RowModeType.class, new RowModeTypeDeserializer(mEa));
-        module.addDeserializer(CellValueType.class, new CellValueTypeDeserializer(mEa));
-        module.addDeserializer(AlignmentType.class, new AlignmentTypeDeserializer(mEa));
-        module.addDeserializer(VerticalAlignmentType.class, new VerticalAlignmentTypeDeserializer(mEa));
-        module.addDeserializer(BorderStyleType.class, new BorderStyleTypeDeserializer(mEa));
-        module.addDeserializer(FillType.class, new FillTypeDeserializer(mEa));
-        module.addDeserializer(UnderlineType.class, new UnderlineTypeDeserializer(mEa));
-        module.addDeserializer(ImageBehaviorType.class, new ImageBehaviorTypeDeserializer(mEa));
-        module.addDeserializer(ModeBehaviorType.class, new ModeBehaviorTypeDeserializer(mEa));
+        module.addDeserializer(RowModeType.class, new RowModeTypeDeserializer());
+        module.addDeserializer(CellValueType.class, new CellValueTypeDeserializer());
+        module.addDeserializer(AlignmentType.class, new AlignmentTypeDeserializer());
+        module.addDeserializer(VerticalAlignmentType.class, new VerticalAlignmentTypeDeserializer());
+        module.addDeserializer(BorderStyleType.class, new BorderStyleTypeDeserializer());
+        module.addDeserializer(FillType.class, new FillTypeDeserializer());
+        module.addDeserializer(UnderlineType.class, new UnderlineTypeDeserializer());
+        module.addDeserializer(ImageBehaviorType.class, new ImageBehaviorTypeDeserializer());
+        module.addDeserializer(ModeBehaviorType.class, new ModeBehaviorTypeDeserializer());
         mapper.registerModule(module);
 
-        return mapper.readValue(reader, RootExcel.class);
+        return mapper;
+    }
+
+    /**
+     * @return A reader of the shared mapper, deserialization warnings go to this generation
+     */
+    private ObjectReader yamlReader() {
+        return MAPPER.reader().withAttribute(ErrorAppender.class, mEa);
+    }
+
+    /**
+     * Read a multi-documents YAML stream (documents separated by <code>---</code>) lazily, one tree at a time
+     *
+     * @param reader The YAML stream
+     * @return The documents iterator, to be closed by the caller
+     * @throws IOException Exception while starting to read
+     * @see #ExcelGenerator(JsonNode)
+     */
+    public static MappingIterator<JsonNode> readDocuments(final Reader reader) throws IOException {
+        return MAPPER.readerFor(JsonNode.class).readValues(reader);
     }
 
     private static int getGreaterColumn(final Sheet sheet) {
@@ -541,7 +872,6 @@ public class ExcelGenerator implements FunctionValueProvider {
      *
      * @param sheet The sheet
      */
-    @SuppressWarnings("static-method")
     protected void autosizeColumns(final Sheet sheet) {
         if (sheet.getPhysicalNumberOfRows() > 0) {
             final var last = getGreaterColumn(sheet);
@@ -551,9 +881,67 @@ public class ExcelGenerator implements FunctionValueProvider {
                     LOGGER.info("generate() : adjusting width of column {} => {}", c.formatAsString(), Integer.valueOf(i));
                 }
 
-                sheet.autoSizeColumn(i);
+                autoSizeColumn(sheet, i);
+            }
+        }
+    }
+
+    /**
+     * Adjust the width of columns with {@link ColumnWidthEstimator}, except in streaming : only the rows of the window are in the sheet, the
+     * widths are tracked by POI while writing.
+     *
+     * @param sheet The sheet
+     * @param columns The 0 based indexes of the columns
+     */
+    private void estimateColumns(final Sheet sheet, final BitSet columns) {
+        if (sheet instanceof SXSSFSheet) {
+            columns.stream().forEach(col -> autoSizeColumn(sheet, col));
+            return;
+        }
+
+        mServices.getWidthEstimator().autoSize(sheet, columns);
+    }
+
+    private void autoSizeColumn(final Sheet sheet, final int col) {
+        if (sheet instanceof SXSSFSheet ss && !ss.isColumnTrackedForAutoSizing(col)) {
+            // Only rows written after tracking are measured, tracking starts with the sheet if the post actions are already known
+            processException(null, "applyPostProcessing({}) : column {} cannot be adjusted while streaming, post actions must be read before the body", getSheetName(), Integer.valueOf(col));
+            return;
+        }
+
+        sheet.autoSizeColumn(col);
+    }
+
+    /**
+     * Read the YAML (only once) and compute its cache key if a cache is set
+     *
+     * @return The cache key, null if no cache or if the generation cannot be cached (model or a resource is not a file)
+     * @throws XlsgenException The YAML cannot be read
+     * @see #setCache(GenerationResultCache)
+     */
+    public String prepare() throws XlsgenException {
+        Objects.requireNonNull(mServices, "setServices() must be called before generating");
+
+        if (mRoot == null) {
+            mRoot = readYaml();
+            mOutputFilename = getTargetFilename(mRoot);
+
+            // Streamed YAML : content address known only at the end, cannot be cached
+            if (mCache != null && mDigest != null) {
+                mKey = GenerationKey.compute(mDigest, mRoot);
             }
         }
+
+        return mKey;
+    }
+
+    /**
+     * Use a result cache : identical YAML on identical model are not generated again
+     *
+     * @param cache The cache, null for none
+     */
+    public void setCache(final GenerationResultCache cache) {
+        mCache = cache;
     }
 
     /**
@@ -563,73 +951,527 @@ public class ExcelGenerator implements FunctionValueProvider {
      * @return The generated file
      * @throws XlsgenException Exception escalation
      */
-    public File generate(final Connection con) throws XlsgenException { // NOSONAR
-        final var re = readYaml();
+    public File generate(final Connection con) throws XlsgenException {
+        prepare();
 
-        LOGGER.info("generate() : using model {}", re.getGeneral().getModel());
+        final var outFile = Paths.get(mOutputFilename);
+        try {
+            if (copyFromCache(outFile)) {
+                return outFile.toFile();
+            }
 
-        try (var wb = WorkbookFactory.create(StreamProtocolFactory.create(re.getGeneral().getModel(), con).getStream(), re.getGeneral().getPassword())) {
-            mWorkbook = wb;
-            mEsb = new ExcelStyleBuilder(re, mWorkbook);
+            if (mKey == null) {
+                generateFile(con, outFile);
+            } else {
+                // Identical concurrent generations wait for the first one
+                try (var flight = mCache.begin(mKey)) {
+                    if (!flight.isLeader()) {
+                        awaitLeader(flight);
+                        if (copyFromCache(outFile)) {
+                            return outFile.toFile();
+                        }
+                    }
 
-            // Create global solver with this class as value provider
-            mEs = createSolver(this);
+                    generateFile(con, outFile);
+                    copyToCache(outFile);
+                }
+            }
 
-            // Author is needed for optional comments on cell
-            mAuthor = re.getGeneral().getAuthor();
+            return outFile.toFile();
+        } catch (IOException | StreamProtocolException e) {
+            throw new XlsgenException(e);
+        }
+    }
+
+    private void generateFile(final Connection con, final Path outFile) throws IOException, StreamProtocolException, XlsgenException {
+        try (var wb = openModel(mRoot, con)) {
+            buildThrottled(mRoot, con, wb);
+
+            LOGGER.info("generate() : writing workbook {}", mOutputFilename);
+
+            try (var os = Files.newOutputStream(outFile)) {
+                write(os);
+            }
+        } finally {
+            dispose();
+        }
+    }
 
-            // Global properties
-            mProperties = readProperties(re.getGeneral().getProperties());
+    /**
+     * Generate XLS from YAML and model included in flow, directly into the given stream. No file is created, the output name of the YAML is
+     * ignored.
+     *
+     * @param con Optional database connection, may be used if {@link StreamProtocolAdapter} use a DB streamer
+     * @param os The target stream, not closed by this method
+     * @throws XlsgenException Exception escalation
+     */
+    public void generate(final Connection con, final OutputStream os) throws XlsgenException {
+        prepare();
 
-            // Global mode for reporting exception and warning
-            mReportMode = re.getGeneral().getReport();
+        try {
+            if (copyFromCache(os)) {
+                return;
+            }
 
-            for (final TabType tab : re.getTab()) {
-                // Current sheet
-                mSheet = mEu.getSheet(mWorkbook, tab.getId());
+            if (mKey == null) {
+                generateStream(con, os);
+                return;
+            }
 
-                // Cannot process sheet, continue the loop to next ID
-                if (mSheet == null) {
-                    LOGGER.info("generate() : cannot process sheet {} because it cannot be found in workbook. Should never occurs !!!", tab.getId());
-                    continue;
+            // Identical concurrent generations wait for the first one
+            try (var flight = mCache.begin(mKey)) {
+                if (!flight.isLeader()) {
+                    awaitLeader(flight);
+                    if (copyFromCache(os)) {
+                        return;
+                    }
                 }
 
-                LOGGER.info("generate() : processing sheet \"{}\"", mSheet.getSheetName());
+                generateCachedStream(con, os);
+            }
+        } catch (IOException | StreamProtocolException e) {
+            throw new XlsgenException(e);
+        }
+    }
+
+    private void generateStream(final Connection con, final OutputStream os) throws IOException, StreamProtocolException, XlsgenException {
+        try (var wb = openModel(mRoot, con)) {
+            buildThrottled(mRoot, con, wb);
 
-                // Header is optional
-                applyHeader(tab.getHeader(), con);
+            LOGGER.info("generate() : writing workbook to output stream");
 
-                applyBody(tab.getBody());
+            write(os);
+        } finally {
+            dispose();
+        }
+    }
+
+    private void generateCachedStream(final Connection con, final OutputStream os) throws IOException, StreamProtocolException, XlsgenException {
+        var temp = mCache.createTempFile();
+        try {
+            // Same bytes to the caller and to the cache
+            try (var fos = Files.newOutputStream(temp)) {
+                final var tee = new TeeOutputStream(os, fos);
+                generateStream(con, tee);
+                tee.flush();
+            }
 
-                // Post actions facultatives
-                applyPostProcessing(tab.getPost());
+            putInCache(temp);
+            temp = null;
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp);
             }
+        }
+    }
 
-            // Help for debugging YAML input
-            createSheetErrors();
+    private void awaitLeader(final SingleFlight.Flight flight) throws XlsgenException {
+        LOGGER.info("generate() : same generation {} in progress, waiting for it", mKey);
 
-            // Should ever generate with the same file extension than the source file
-            final var ext = GedUtil.getFileExtension(re.getGeneral().getModel());
-            final var outFilename = GedUtil.replaceFileExtension(getOutputFilename(re), ext);
+        try {
+            flight.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new XlsgenException(e);
+        }
+    }
 
-            LOGGER.info("generate() : writing workbook {}", outFilename);
+    private boolean copyFromCache(final Path outFile) throws IOException {
+        if (mKey != null) {
+            try (var is = mCache.open(mKey)) {
+                if (is != null) {
+                    LOGGER.info("generate() : result {} found in cache, writing workbook {}", mKey, mOutputFilename);
 
-            // Write metadatas if specified
-            final var emb = new ExcelMetadataBuilder(re);
-            emb.write(mWorkbook);
+                    Files.copy(is, outFile, StandardCopyOption.REPLACE_EXISTING);
+                    return true;
+                }
+            }
+        }
 
-            final var outFile = Paths.get(outFilename);
-            try (var os = Files.newOutputStream(outFile)) {
-                // Force le recalcul des formules à l'ouverture dans Excel
-                mWorkbook.setForceFormulaRecalculation(true);
+        return false;
+    }
+
+    private boolean copyFromCache(final OutputStream os) throws IOException {
+        if (mKey != null) {
+            try (var is = mCache.open(mKey)) {
+                if (is != null) {
+                    LOGGER.info("generate() : result {} found in cache", mKey);
 
-                mWorkbook.write(os);
+                    GedUtil.copyIs2Os(is, os, 8192);
+                    return true;
+                }
             }
+        }
 
-            return outFile.toFile();
-        } catch (IOException | StreamProtocolException e) {
+        return false;
+    }
+
+    private void copyToCache(final Path outFile) {
+        try {
+            final var temp = mCache.createTempFile();
+            Files.copy(outFile, temp, StandardCopyOption.REPLACE_EXISTING);
+            putInCache(temp);
+        } catch (final IOException e) {
+            // The result is already written, the cache is only an optimization
+            LOGGER.warn("copyToCache() : cannot store result {} : {}", mKey, e.getMessage());
+        }
+    }
+
+    private void putInCache(final Path temp) {
+        try {
+            mCache.put(mKey, temp);
+        } catch (final IOException e) {
+            // The result is already given, the cache is only an optimization
+            LOGGER.warn("putInCache() : cannot store result {} : {}", mKey, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.warn("deleteQuietly() : cannot delete file {} : {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Open the workbook model referenced by the YAML
+     *
+     * @param re The YAML root
+     * @param con Optional database connection
+     * @return The workbook
+     * @throws IOException Exception while reading the model
+     * @throws StreamProtocolException The model cannot be reached
+     */
+    private Workbook openModel(final RootExcel re, final Connection con) throws IOException, StreamProtocolException {
+        LOGGER.info("generate() : using model {}", re.getGeneral().getModel());
+
+        // Images, imported files and properties are read in the background while the model is loaded and the styles are built
+        mServices.getPrefetcher().prefetch(re);
+
+        // Models are few : read and decrypt them once
+        return mServices.getTemplateCache().open(re.getGeneral().getModel(), re.getGeneral().getPassword(), con);
+    }
+
+    /**
+     * Limit the number of workbooks built at the same time. Model loading and workbook writing are not limited, they are mostly I/O.
+     *
+     * @param throttle The shared semaphore, null for no limit
+     */
+    public void setThrottle(final Semaphore throttle) {
+        mThrottle = throttle;
+    }
+
+    /**
+     * Services shared between generators, mandatory before {@link #prepare()}
+     *
+     * @param services The services of the application
+     */
+    public void setServices(final GenerationServices services) {
+        mServices = services;
+    }
+
+    private void buildThrottled(final RootExcel re, final Connection con, final Workbook wb) throws XlsgenException {
+        if (mThrottle == null) {
+            build(re, con, wb);
+            return;
+        }
+
+        try {
+            mThrottle.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new XlsgenException(e);
         }
+
+        try {
+            build(re, con, wb);
+        } finally {
+            mThrottle.release();
+        }
+    }
+
+    /**
+     * Fill the workbook model with sheets definitions
+     *
+     * @param re The YAML root
+     * @param con Optional database connection
+     * @param wb The workbook model
+     */
+    private void build(final RootExcel re, final Connection con, final Workbook wb) { // NOSONAR
+        // Body cells resolved once : columns, styles, transformers, split values
+        final var plan = ExecutionPlanCompiler.compile(re, mServices.getExprCache(), mServices.getShapeCache());
+
+        mWorkbook = wb;
+        mEsb = new ExcelStyleBuilder(re, mWorkbook);
+
+        // Create global solver with this class as value provider
+        mEs = createSolver(this, mServices.getExprCache());
+
+        // Author is needed for optional comments on cell
+        mAuthor = re.getGeneral().getAuthor();
+
+        // Global properties
+        mProperties = readProperties(re.getGeneral().getProperties());
+
+        // Global mode for reporting exception and warning
+        mReportMode = re.getGeneral().getReport();
+
+        // Big xlsx bodies : only a window of rows in memory
+        applyStreaming(re.getGeneral(), plan);
+        mFormulas = new FormulaCopier(mWorkbook);
+        mPictures = new PictureRegistry(mWorkbook, mServices.getPrescaleDpi());
+        mDate1904 = ExcelUtil.isDate1904(mWorkbook);
+
+        mPlan = plan;
+        mStyles = plan.bind(mEsb);
+
+        final var tabs = re.getTab();
+        for (var i = 0; i < tabs.size(); i++) {
+            final var it = Arrays.asList(plan.getBody(i)).iterator();
+            applyTab(tabs.get(i), con, () -> it.hasNext() ? it.next() : null);
+        }
+
+        if (mYamlTabs != null) {
+            applyStreamedTabs(re, con);
+        }
+
+        // Help for debugging YAML input
+        createSheetErrors();
+
+        // Write metadatas if specified
+        final var emb = new ExcelMetadataBuilder(re);
+        emb.write(mWorkbook);
+    }
+
+    /**
+     * Tabs read from the YAML while generating : each row is compiled and written, then forgotten
+     *
+     * @param re The YAML root (head), for the formats of the styles
+     * @param con Optional database connection
+     */
+    private void applyStreamedTabs(final RootExcel re, final Connection con) {
+        final var epc = ExecutionPlanCompiler.incremental(re, mServices.getExprCache(), mServices.getShapeCache());
+        mPlan = epc.getPlan();
+        mStyles = mPlan.bind(mEsb);
+
+        try {
+            for (var tab = mYamlTabs.nextTab(); tab != null; tab = mYamlTabs.nextTab()) {
+                applyTab(tab, con, () -> {
+                    try {
+                        final var rt = mYamlTabs.nextRow();
+
+                        return rt == null ? null : epc.compileRow(rt);
+                    } catch (final IOException e) {
+                        throw new XslgenRuntimeException(e);
+                    }
+                });
+            }
+        } catch (final IOException e) {
+            throw new XslgenRuntimeException(e);
+        }
+    }
+
+    /**
+     * @param tab The YAML tab
+     * @param con Optional database connection
+     * @param rows The compiled body rows, null at the end
+     */
+    private void applyTab(final TabType tab, final Connection con, final Supplier<CompiledRow> rows) {
+        // Current sheet
+        mSheet = mEu.getSheet(mWorkbook, tab.getId());
+
+        // Cannot process sheet, continue the loop to next ID
+        if (mSheet == null) {
+            LOGGER.info("generate() : cannot process sheet {} because it cannot be found in workbook. Should never occurs !!!", tab.getId());
+            return;
+        }
+
+        LOGGER.info("generate() : processing sheet \"{}\"", mSheet.getSheetName());
+
+        mMerged = new MergedRegions(mSheet);
+        mOccupancy = null;
+
+        selectModelSheet(tab.getPost());
+
+        // Header is optional
+        applyHeader(tab.getHeader(), con);
+
+        applyBody(tab.getBody(), rows);
+
+        // Post actions facultatives
+        applyPostProcessing(tab.getPost());
+
+        for (final CellRangeAddress r : mMerged.validate()) {
+            processException(new IllegalStateException(r.formatAsString()), "applyTab({}) : merged region {} overlaps another one, removed", getSheetName(), r.formatAsString());
+        }
+    }
+
+    /**
+     * Wrap the xlsx model in a {@link SXSSFWorkbook} if streaming is asked or the body is big enough
+     *
+     * @param gt The general section of the YAML
+     * @param plan The compiled YAML
+     */
+    private void applyStreaming(final GeneralType gt, final ExecutionPlan plan) {
+        final var policy = mServices.getStreamingPolicy();
+        if (!policy.isStreaming(gt, plan.getRowCount(), plan.isStreamable(mWorkbook))) {
+            return;
+        }
+
+        if (!(mWorkbook instanceof XSSFWorkbook xwb)) {
+            processException(null, "generate() : streaming is only available for xlsx models, model {} is written in memory", gt.getModel());
+            return;
+        }
+
+        final var window = policy.getWindow(gt);
+        final var swb = new SXSSFWorkbook(xwb, window, true);
+        mWorkbook = swb;
+
+        LOGGER.info("generate() : streaming {} body rows with a window of {} rows", Integer.valueOf(plan.getRowCount()), Integer.valueOf(window));
+    }
+
+    /**
+     * In streaming, keep the XSSF view of the current sheet for the rows of the model
+     *
+     * @param postAction The post actions of the sheet, columns to autosize must be tracked before writing rows
+     */
+    private void selectModelSheet(final PostType postAction) {
+        if (!(mWorkbook instanceof SXSSFWorkbook swb)) {
+            mModelSheet = null;
+            return;
+        }
+
+        final var ss = (SXSSFSheet) mSheet;
+        mModelSheet = swb.getXSSFWorkbook().getSheet(mSheet.getSheetName());
+
+        if (postAction != null && (postAction.getAdjustment() != null || postAction.getCell().stream().anyMatch(ct -> ct.getAdjustment() != null))) {
+            ss.trackAllColumnsForAutoSizing();
+        }
+    }
+
+    /**
+     * Get or create a row of the current sheet. In streaming, rows of the model are read from XSSF, the others are created in the window.
+     *
+     * @param index The 0 based index of the row
+     * @return The row, null if already written to disk
+     */
+    private Row getOrCreateRow(final int index) {
+        touchRow(index);
+
+        if (mModelSheet == null) {
+            return mEu.getRow(mSheet, mShifts == null ? index : mShifts.toPhysical(index));
+        }
+
+        if (index <= mModelSheet.getLastRowNum()) {
+            return mEu.getRow(mModelSheet, index);
+        }
+
+        final var row = mSheet.getRow(index);
+        if (row != null) {
+            return row;
+        }
+
+        if (isFlushed(index)) {
+            return null;
+        }
+
+        return mSheet.createRow(index);
+    }
+
+    /**
+     * @param index The 0 based index of the row
+     * @return true if the row is out of the streaming window
+     */
+    private boolean isFlushed(final int index) {
+        return mModelSheet != null && index > mModelSheet.getLastRowNum() && index <= ((SXSSFSheet) mSheet).getLastFlushedRowNum();
+    }
+
+    /**
+     * Copy a row of the current sheet, from the model or from the streaming window
+     *
+     * @param mode The mode of the YAML row, for reporting
+     * @param from The 0 based index of the source row
+     */
+    private void copyRow(final RowModeType mode, final int from) {
+        if (mModelSheet == null) {
+            if (from == mIndex) {
+                return;
+            }
+
+            if (ExcelUtil.copyRow(mFormulas, mShifts, from, mIndex, mMerged) && mOccupancy != null) {
+                mOccupancy.insert(mIndex);
+            }
+            touchRow(mIndex);
+            return;
+        }
+
+        if (from == mIndex) {
+            return;
+        }
+
+        if (isFlushed(from)) {
+            processException(null, "applyBody({}) : mode {} cannot copy row {} already written to disk, streaming window is too small", getSheetName(), mode, Integer.valueOf(from));
+            return;
+        }
+
+        final var target = mIndex <= mModelSheet.getLastRowNum() ? mModelSheet : mSheet;
+        if (target.getRow(mIndex) != null || isFlushed(mIndex)) {
+            // Copy over an existing row shifts the next ones : not possible in streaming
+            processException(null, "applyBody({}) : mode {} cannot copy over row {} in streaming, rows cannot be shifted", getSheetName(), mode, Integer.valueOf(mIndex));
+            return;
+        }
+
+        final var source = from <= mModelSheet.getLastRowNum() ? mModelSheet : mSheet;
+        ExcelUtil.copyRow(mFormulas, source, from, target, mIndex, mMerged);
+        touchRow(mIndex);
+    }
+
+    /**
+     * Insert an empty row in the current body, the next ones are moved down
+     *
+     * @param index The 0 based index of the row
+     */
+    private void insertRow(final int index) {
+        mShifts.insert(index);
+
+        if (mOccupancy != null) {
+            mOccupancy.insert(index);
+        }
+    }
+
+    private void touchRow(final int index) {
+        if (mOccupancy != null) {
+            mOccupancy.touch(index);
+        }
+    }
+
+    /**
+     * Serialize the current workbook
+     *
+     * @param os The target stream
+     * @throws IOException Exception while writing
+     */
+    private void write(final OutputStream os) throws IOException {
+        // Force le recalcul des formules à l'ouverture dans Excel
+        mWorkbook.setForceFormulaRecalculation(true);
+
+        mWorkbook.write(os);
+    }
+
+    /**
+     * Delete the temporary files of streaming, if any
+     */
+    private void dispose() {
+        if (mWorkbook instanceof SXSSFWorkbook swb && !swb.dispose()) {
+            LOGGER.warn("dispose() : some temporary files of streaming cannot be deleted");
+        }
+
+        if (mYamlTabs != null) {
+            closeQuietly(mYamlTabs);
+            mYamlTabs = null;
+        }
     }
 
     private void applyHeader(final HeaderType ht, final Connection con) {
@@ -639,17 +1481,22 @@ public class ExcelGenerator implements FunctionValueProvider {
                 final var cr = new CellReference(name);
 
                 if (cr.getRow() > -1 && cr.getCol() > -1) {
-                    final var row = mEu.getRow(mSheet, cr.getRow());
+                    final var row = getOrCreateRow(cr.getRow());
+                    if (row == null) {
+                        processException(null, "generate({}) : header ref {} is already written to disk, streaming window is too small", getSheetName(), name);
+                        continue;
+                    }
 
                     applyHeight(row, ht.getHeight());
                     applyWidth(mSheet, cr, ct.getWidth());
-                    applyColspan(mSheet, cr.getCol(), cr.getRow(), ct.getColspan());
+                    applyColspan(cr.getCol(), cr.getRow(), ct.getColspan());
                     applyImage(con, mSheet, ct);
 
                     final var cell = mEu.getCell(row, cr.getCol());
                     applyStyle(cell, ct.getStyle());
                     mEu.setCellValue(cell, ct.getValue());
                     applyComment(ct.getComment(), cell, mAuthor, ct.getCcolspan().intValue(), ct.getCrowspan().intValue());
+                    touchRow(cr.getRow());
                 } else {
                     // Just consider logging when cell reference is bad
                     processException(null, "generate({}) : header ref {} is badly referenced, should be \"B8\" for example", getSheetName(), name);
@@ -658,116 +1505,145 @@ public class ExcelGenerator implements FunctionValueProvider {
         }
     }
 
-    private void applyBody(final BodyType bt) {
+    private void applyBody(final BodyType bt, final Supplier<CompiledRow> rows) {
         // Body is optional
         if (bt != null) {
-            // Columns grouping
+            // Insertions shift the next rows once, not for each row (not possible in streaming)
+            mShifts = mModelSheet == null ? new RowShiftLog(mSheet, mMerged, mFormulas, mPlan.getRowCount()) : null;
+            try {
+                applyRows(bt, rows);
+            } finally {
+                if (mShifts != null) {
+                    mShifts.flush();
+                    mShifts = null;
+                }
+            }
+
+            // Columns grouping, after the rows : a streamed YAML may define groups after them
             applyGroupings(bt.getGroup());
+        }
+    }
 
-            // Start index and create a stack to push/pop values
-            mIndex = bt.getIndex();
-
-            final Deque<Integer> stack = new ArrayDeque<>();
-            stack.push(Integer.valueOf(mIndex));
-
-            // Loop for each row to process
-            for (final RowType rt : bt.getRow()) {
-                int copyFromRow;
-                switch (rt.getMode()) {
-                    // On pousse l'index courant sur la pile pour pouvoir le réutiliser plus tard
-                    case PUSH:
-                        stack.push(Integer.valueOf(mIndex));
-                        LOGGER.debug("applyBody() : push index {} to stack", Integer.valueOf(mIndex));
-                        break;
-
-                    case POP:
-                        mIndex = stack.pop();
-                        LOGGER.debug("applyBody() : pop index {} from stack", Integer.valueOf(mIndex));
-                        break;
-
-                    case INDEX:
-                        mIndex = rt.getIndex();
-                        LOGGER.debug("applyBody() : set row index at {}", Integer.valueOf(mIndex));
-                        break;
-
-                    case CURRENT:
-                        LOGGER.debug("applyBody() : set row index at current {}", Integer.valueOf(mIndex));
-                        break;
-
-                    case SOLVED:
-                        mIndex = getIntSolved(rt.getExpr());
-                        LOGGER.debug("applyBody() : set calculated row index at current {} for expression={}", Integer.valueOf(mIndex), rt.getExpr());
-                        break;
-
-                    case COPYFROM:
-                        // O based index
-                        copyFromRow = rt.getIndex();
-                        ExcelUtil.copyRow(mWorkbook, mSheet, copyFromRow, mIndex);
-                        LOGGER.debug("applyBody() : copy from row={} to row={}", Integer.valueOf(copyFromRow), Integer.valueOf(mIndex));
-                        break;
-
-                    case COPYFROMCURRENT:
-                        // O based index : previous index
-                        copyFromRow = mIndex - 1;
-                        ExcelUtil.copyRow(mWorkbook, mSheet, copyFromRow, mIndex);
-                        LOGGER.debug("applyBody() : copy from row={} to row={}", Integer.valueOf(copyFromRow), Integer.valueOf(mIndex));
-                        break;
-
-                    case INSERTAT:
-                        if (rt.getIndex() < mSheet.getLastRowNum()) {
-                            // Pas la peine de décaler si on se positionne après le dernier row de la feuille.
-                            // (en l'occurence ça lève même une exception, pas choquant)
-                            mSheet.shiftRows(rt.getIndex(), mSheet.getLastRowNum(), 1);
-                            LOGGER.debug("applyBody() : insert row at index={} (shifting down)", Integer.valueOf(mIndex));
-                        }
-                        break;
+    private void applyRows(final BodyType bt, final Supplier<CompiledRow> rows) {
+        // Start index and create a stack to push/pop values
+        mIndex = bt.getIndex();
+
+        final Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(Integer.valueOf(mIndex));
+
+        // Loop for each row to process
+        for (var cr = rows.get(); cr != null; cr = rows.get()) {
+            final var rt = cr.getSource();
+            int copyFromRow;
+            switch (rt.getMode()) {
+                // On pousse l'index courant sur la pile pour pouvoir le réutiliser plus tard
+                case PUSH:
+                    stack.push(Integer.valueOf(mIndex));
+                    LOGGER.debug("applyBody() : push index {} to stack", Integer.valueOf(mIndex));
+                    break;
+
+                case POP:
+                    mIndex = stack.pop();
+                    LOGGER.debug("applyBody() : pop index {} from stack", Integer.valueOf(mIndex));
+                    break;
+
+                case INDEX:
+                    mIndex = rt.getIndex();
+                    LOGGER.debug("applyBody() : set row index at {}", Integer.valueOf(mIndex));
+                    break;
+
+                case CURRENT:
+                    LOGGER.debug("applyBody() : set row index at current {}", Integer.valueOf(mIndex));
+                    break;
+
+                case SOLVED:
+                    mIndex = getIntSolved(rt.getExpr());
+                    LOGGER.debug("applyBody() : set calculated row index at current {} for expression={}", Integer.valueOf(mIndex), rt.getExpr());
+                    break;
+
+                case COPYFROM:
+                    // O based index
+                    copyFromRow = rt.getIndex();
+                    copyRow(rt.getMode(), copyFromRow);
+                    LOGGER.debug("applyBody() : copy from row={} to row={}", Integer.valueOf(copyFromRow), Integer.valueOf(mIndex));
+                    break;
+
+                case COPYFROMCURRENT:
+                    // O based index : previous index
+                    copyFromRow = mIndex - 1;
+                    copyRow(rt.getMode(), copyFromRow);
+                    LOGGER.debug("applyBody() : copy from row={} to row={}", Integer.valueOf(copyFromRow), Integer.valueOf(mIndex));
+                    break;
+
+                case INSERTAT:
+                    if (mModelSheet != null) {
+                        // SXSSF cannot shift rows, neither those of the model nor those of the window
+                        processException(null, "applyBody({}) : mode INSERTAT at index {} is not available in streaming, row written without insertion", getSheetName(), rt.getIndex());
+                    } else if (rt.getIndex() < mShifts.getLastRowNum()) {
+                        // Pas la peine de décaler si on se positionne après le dernier row de la feuille.
+                        // (en l'occurence ça lève même une exception, pas choquant)
+                        insertRow(rt.getIndex());
+                        LOGGER.debug("applyBody() : insert row at index={} (shifting down)", Integer.valueOf(mIndex));
+                    }
+                    break;
 
-                    default:
-                        break;
+                default:
+                    break;
+            }
+
+            // Convenient test to exclude and trace bad index
+            // Pour les mode PUSH et POP, il ne faut pas faire de traitement supplémentaire
+            if (mIndex < 0 || rt.getMode() == RowModeType.PUSH || rt.getMode() == RowModeType.POP) {
+                if (mIndex < 0) {
+                    LOGGER.warn("applyBody() : skipping row for mode={} because of bad row index={}", rt.getMode(), Integer.valueOf(mIndex));
                 }
 
-                // Convenient test to exclude and trace bad index
-                // Pour les mode PUSH et POP, il ne faut pas faire de traitement supplémentaire
-                if (mIndex < 0 || rt.getMode() == RowModeType.PUSH || rt.getMode() == RowModeType.POP) {
-                    if (mIndex < 0) {
-                        LOGGER.warn("applyBody() : skipping row for mode={} because of bad row index={}", rt.getMode(), Integer.valueOf(mIndex));
-                    }
+                continue;
+            }
 
-                    continue;
-                }
+            // Si la ligne n'existe pas, on en profite pour la créer. Ce cas d'utilisation est peu probable
+            // car on va plutôt dupliquer des rows existants dans la plupart des cas.
+            final var row = getOrCreateRow(mIndex);
+            if (row == null) {
+                // Going backward out of the streaming window (INDEX, SOLVED, POP, ...)
+                processException(null, "applyBody({}) : mode {} targets row {} already written to disk, streaming window is too small", getSheetName(), rt.getMode(), Integer.valueOf(mIndex));
+                mIndex++;
+                continue;
+            }
 
-                // Si la ligne n'existe pas, on en profite pour la créer. Ce cas d'utilisation est peu probable
-                // car on va plutôt dupliquer des rows existants dans la plupart des cas.
-                final var row = mEu.getRow(mSheet, mIndex);
+            for (final CompiledCell cc : cr.getCells()) {
+                final var ct = cc.getSource();
+                // Colonne déjà décodée par le plan, le numéro de ligne étant dynamique
+                final var col = cc.getShape().getCol();
+                final var cell = mEu.getCell(row, col);
 
-                for (final CellType ct : rt.getCell()) {
-                    final var cellRef = ct.getRef();
-                    // Décodage pour récupérer la référence de colonne, le numéro de ligne étant dynamique en fait.
-                    // Du coup le formalisme "C8" n'utilise que "C" par exemple
-                    final var cr = new CellReference(cellRef);
-                    final var cell = mEu.getCell(row, cr.getCol());
+                applyColspan(col, row.getRowNum(), ct.getColspan());
 
-                    applyColspan(mSheet, cr.getCol(), mIndex, ct.getColspan());
+                updateCell(cell, cc);
+                applyComment(ct.getComment(), cell, mAuthor, ct.getCcolspan().intValue(), ct.getCrowspan().intValue());
+            }
 
-                    updateCell(cell, ct);
-                    applyComment(ct.getComment(), cell, mAuthor, ct.getCcolspan().intValue(), ct.getCrowspan().intValue());
-                }
+            // Again once written : a find() in a cell of this row may have indexed it half written
+            touchRow(mIndex);
 
-                applyHeight(row, rt.getHeight());
+            applyHeight(row, rt.getHeight());
 
-                mIndex++;
-            }
+            mIndex++;
         }
     }
 
     private void applyPostProcessing(final PostType postAction) {
         if (postAction != null) {
+            final var fast = new BitSet();
             for (final CellType ct : postAction.getCell()) {
                 final var cellRef = ct.getRef();
                 final var cr = new CellReference(cellRef);
 
-                if (ct.getAdjustment() != null) {
-                    mSheet.autoSizeColumn(cr.getCol());
+                if (FAST.equalsIgnoreCase(ct.getAdjustment())) {
+                    // Estimated all together after the loop, in one pass on the rows
+                    fast.set(cr.getCol());
+                } else if (ct.getAdjustment() != null) {
+                    autoSizeColumn(mSheet, cr.getCol());
 
                     LOGGER.info("applyPostProcessing() : adjusting width of column {}", Integer.valueOf(cr.getCol()));
                 }
@@ -782,8 +1658,12 @@ public class ExcelGenerator implements FunctionValueProvider {
             // Seul cas global pris en compte : auto pour toutes les colonnes
             if ("auto".equalsIgnoreCase(postAction.getAdjustment())) {
                 autosizeColumns(mSheet);
+            } else if (FAST.equalsIgnoreCase(postAction.getAdjustment()) && mSheet.getPhysicalNumberOfRows() > 0) {
+                fast.set(0, getGreaterColumn(mSheet));
             }
 
+            estimateColumns(mSheet, fast);
+
             // Si on a fixé des largeurs, on les passe après l'autosize
             for (final CellType ct : postAction.getCell()) {
                 final var cellRef = ct.getRef();
@@ -897,11 +1777,12 @@ public class ExcelGenerator implements FunctionValueProvider {
     private final Map<String, String> readProperties(final String filename) {
         if (filename != null) {
             final var p = new Properties();
-            try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(filename)), StandardCharsets.UTF_8)) {
+            // Usually prefetched with the YAML, see openModel()
+            try (Reader reader = new InputStreamReader(new ByteArrayInputStream(readResource(GED_PROTOCOL.FILE.getScheme() + filename)), StandardCharsets.UTF_8)) {
                 p.load(reader);
 
                 return Collections.unmodifiableMap(new HashMap(p));
-            } catch (final IOException e) {
+            } catch (final IOException | StreamProtocolException e) {
                 processException(e, "readProperties() : property file cannot be read because of exception {}", e);
             }
         }
@@ -909,11 +1790,44 @@ public class ExcelGenerator implements FunctionValueProvider {
         return Collections.unmodifiableMap(new HashMap<String, String>());
     }
 
+    @Override
+    public byte[] readResource(final String name) throws IOException, StreamProtocolException {
+        return mServices.getFetchCache().read(name, null).getBytes();
+    }
+
     @Override
     public Sheet getSheet() {
         return mSheet;
     }
 
+    @Override
+    public Row getRow(final int index) {
+        if (mShifts != null) {
+            return mShifts.getRow(index);
+        }
+
+        // In streaming the rows of the model are not reachable through the SXSSF sheet
+        if (mModelSheet != null && index <= mModelSheet.getLastRowNum()) {
+            return mModelSheet.getRow(index);
+        }
+
+        return mSheet.getRow(index);
+    }
+
+    @Override
+    public int findEmptyRow(final int col1, final int col2, final int start) {
+        if (mOccupancy == null) {
+            var last = mShifts == null ? mSheet.getLastRowNum() : mShifts.getLastRowNum();
+            if (mModelSheet != null) {
+                last = Math.max(last, mModelSheet.getLastRowNum());
+            }
+
+            mOccupancy = new SheetOccupancy(this::getRow, last);
+        }
+
+        return mOccupancy.find(col1, col2, start);
+    }
+
     @Override
     public int getIndex() {
         return mIndex;
@@ -10,8 +10,14 @@
  */
 package com.arkham.ged.xlsgen;
 
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 
+import com.arkham.ged.streams.StreamProtocolException;
+import com.arkham.ged.xlsgen.util.SheetOccupancy;
+
 /**
  * @author arocher / Arkham asylum
  * @version 1.0
@@ -25,6 +31,36 @@ public interface FunctionValueProvider {
      */
     Sheet getSheet();
 
+    /**
+     * Get a row of the current sheet. Rows may not be at their final index in the sheet while a body is generated (pending insertions,
+     * streaming), so functions should read rows through this method.
+     *
+     * @param index The 0 based index of the row
+     * @return The row, null if it does not exist
+     */
+    default Row getRow(int index) {
+        return getSheet().getRow(index);
+    }
+
+    /**
+     * Find the first row whose cells are empty in a column range. By default the rows are read one by one, up to the last one.
+     *
+     * @param col1 The first column, 0 based
+     * @param col2 The last column, included
+     * @param start The first row to check, 0 based
+     * @return The 0 based index of the row
+     */
+    default int findEmptyRow(int col1, int col2, int start) {
+        final var last = getSheet().getLastRowNum();
+
+        var index = start;
+        while (index <= last && !SheetOccupancy.isEmpty(getRow(index), col1, col2)) {
+            index++;
+        }
+
+        return index;
+    }
+
     /**
      * Get the current index
      *
@@ -39,4 +75,14 @@ public interface FunctionValueProvider {
      * @return The value of property
      */
     String getProperty(String name);
+
+    /**
+     * Read an external resource, through the fetch cache of the generation
+     *
+     * @param name The resource name, with scheme
+     * @return The content
+     * @throws IOException Exception while reading the resource
+     * @throws StreamProtocolException The resource cannot be reached
+     */
+    byte[] readResource(String name) throws IOException, StreamProtocolException;
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.arkham.ged.xlsgen.cache.ResourcePrefetcher;
+import com.arkham.ged.xlsgen.cache.StreamFetchCache;
+import com.arkham.ged.xlsgen.cache.TemplateCache;
+import com.arkham.ged.xlsgen.expr.ExprCache;
+import com.arkham.ged.xlsgen.plan.CellShapeCache;
+import com.arkham.ged.xlsgen.util.ColumnWidthEstimator;
+
+/**
+ * The shared services of the generations (caches, prefetch, streaming policy, width estimation), configured once by the application and
+ * given to each {@link ExcelGenerator} with {@link ExcelGenerator#setServices(GenerationServices)}.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class GenerationServices {
+    /**
+     * Resolution of the images prescaled before being added, 0 to keep them as is (see {@link com.arkham.ged.xlsgen.util.PictureRegistry})
+     */
+    @ConfigProperty(name = "yeti.image.prescale-dpi", defaultValue = "0")
+    int mPrescaleDpi;
+
+    @Inject
+    TemplateCache mTemplateCache;
+
+    @Inject
+    StreamFetchCache mFetchCache;
+
+    @Inject
+    ResourcePrefetcher mPrefetcher;
+
+    @Inject
+    ExprCache mExprCache;
+
+    @Inject
+    CellShapeCache mShapeCache;
+
+    @Inject
+    StreamingPolicy mStreamingPolicy;
+
+    @Inject
+    ColumnWidthEstimator mWidthEstimator;
+
+    int getPrescaleDpi() {
+        return mPrescaleDpi;
+    }
+
+    TemplateCache getTemplateCache() {
+        return mTemplateCache;
+    }
+
+    StreamFetchCache getFetchCache() {
+        return mFetchCache;
+    }
+
+    ResourcePrefetcher getPrefetcher() {
+        return mPrefetcher;
+    }
+
+    ExprCache getExprCache() {
+        return mExprCache;
+    }
+
+    CellShapeCache getShapeCache() {
+        return mShapeCache;
+    }
+
+    StreamingPolicy getStreamingPolicy() {
+        return mStreamingPolicy;
+    }
+
+    ColumnWidthEstimator getWidthEstimator() {
+        return mWidthEstimator;
+    }
+}
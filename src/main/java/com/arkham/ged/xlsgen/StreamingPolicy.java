@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.yaml.GeneralType;
+
+/**
+ * When to write a xlsx workbook through a window of rows (SXSSF) instead of keeping all the rows in memory. Chosen by the
+ * <code>streaming</code> attribute of <code>general</code>, or automatically above <code>yeti.streaming.threshold</code> body rows.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+class StreamingPolicy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingPolicy.class);
+
+    @ConfigProperty(name = "yeti.streaming.threshold", defaultValue = "50000")
+    int mThreshold;
+
+    @ConfigProperty(name = "yeti.streaming.window", defaultValue = "100")
+    int mWindow;
+
+    @PostConstruct
+    void init() {
+        LOGGER.info("init() : streaming above {} rows, window of {} rows", mThreshold, mWindow);
+    }
+
+    /**
+     * @param gt The general section of the YAML
+     * @param rowCount The number of body rows
+     * @param streamable true if no row would be lost in streaming (see ExecutionPlan#isStreamable)
+     * @return true if the workbook should be written in streaming
+     */
+    boolean isStreaming(final GeneralType gt, final int rowCount, final boolean streamable) {
+        // Asked explicitly : rows that cannot be written in streaming are reported
+        if (gt.isStreaming() != null) {
+            return gt.isStreaming().booleanValue();
+        }
+
+        // Automatic choice only when nothing is lost
+        return mThreshold > 0 && rowCount > mThreshold && streamable;
+    }
+
+    /**
+     * @param gt The general section of the YAML
+     * @return The number of rows kept in memory
+     */
+    int getWindow(final GeneralType gt) {
+        if (gt.getWindow() != null && gt.getWindow().intValue() > 0) {
+            return gt.getWindow().intValue();
+        }
+
+        return mWindow;
+    }
+}
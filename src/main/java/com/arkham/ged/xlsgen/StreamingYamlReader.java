@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.yaml.BodyType;
+import com.arkham.ged.yaml.RowType;
+import com.arkham.ged.yaml.TabType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Read the tabs of a YAML while generating : only the current tab (without its rows) and the current row are on the heap. The YAML is read
+ * in document order, so what comes too late is ignored with a warning : tab <code>id</code> and <code>header</code> after <code>body</code>,
+ * body <code>index</code> after <code>row</code>, root elements after <code>tab</code>.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+final class StreamingYamlReader implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingYamlReader.class);
+
+    private final ObjectReader mTabReader;
+    private final ObjectReader mBodyReader;
+    private final ObjectReader mRowReader;
+    private final JsonParser mParser;
+
+    private TabType mTab;
+    private boolean mInTab;
+    private boolean mInRows;
+    private boolean mDone;
+
+    /**
+     * Constructor StreamingYamlReader
+     *
+     * @param reader The reader of the generation
+     * @param parser The parser, positioned on the array of tabs
+     */
+    StreamingYamlReader(final ObjectReader reader, final JsonParser parser) {
+        mTabReader = reader.forType(TabType.class);
+        mBodyReader = reader.forType(BodyType.class);
+        mRowReader = reader.forType(RowType.class);
+        mParser = parser;
+    }
+
+    /**
+     * Read the next tab up to its rows : the body is given without rows, the post actions are known once the rows are read
+     *
+     * @return The tab, null if no more
+     * @throws IOException Exception while reading
+     */
+    TabType nextTab() throws IOException {
+        // Rows of the previous tab not consumed
+        while (nextRow() != null) {
+            // Skip
+        }
+
+        if (mDone || mParser.nextToken() != JsonToken.START_OBJECT) {
+            finish();
+            return null;
+        }
+
+        final var head = JsonNodeFactory.instance.objectNode();
+        ObjectNode body = null;
+        while (mParser.nextToken() == JsonToken.FIELD_NAME) {
+            final var name = mParser.currentName();
+            mParser.nextToken();
+
+            if ("body".equals(name) && mParser.currentToken() == JsonToken.START_OBJECT) {
+                body = readBodyHead();
+                break;
+            }
+
+            head.set(name, mParser.readValueAsTree());
+        }
+
+        mTab = mTabReader.readValue(head);
+        if (body != null) {
+            mTab.setBody(mBodyReader.readValue(body));
+            mInTab = true;
+
+            if (!mInRows) {
+                finishBody();
+            }
+        }
+
+        return mTab;
+    }
+
+    /**
+     * @return The next row of the current tab, null if no more
+     * @throws IOException Exception while reading
+     */
+    RowType nextRow() throws IOException {
+        if (!mInRows) {
+            return null;
+        }
+
+        var token = mParser.nextToken();
+        while (token == JsonToken.VALUE_NULL) {
+            // Empty entry
+            token = mParser.nextToken();
+        }
+
+        if (token != JsonToken.END_ARRAY) {
+            return mRowReader.readValue(mParser);
+        }
+
+        // End of rows : rest of the body then rest of the tab
+        mInRows = false;
+        finishBody();
+
+        return null;
+    }
+
+    private ObjectNode readBodyHead() throws IOException {
+        final var result = JsonNodeFactory.instance.objectNode();
+        while (mParser.nextToken() == JsonToken.FIELD_NAME) {
+            final var name = mParser.currentName();
+            mParser.nextToken();
+
+            if ("row".equals(name) && mParser.currentToken() == JsonToken.START_ARRAY) {
+                mInRows = true;
+                return result;
+            }
+
+            result.set(name, mParser.readValueAsTree());
+        }
+
+        // Body without rows, already complete
+        return result;
+    }
+
+    /**
+     * Rest of the body (after the rows) then rest of the tab
+     */
+    private void finishBody() throws IOException {
+        final var bt = mTab.getBody();
+        if (mParser.currentToken() != JsonToken.END_OBJECT) {
+            final var tail = JsonNodeFactory.instance.objectNode();
+            while (mParser.nextToken() == JsonToken.FIELD_NAME) {
+                final var name = mParser.currentName();
+                mParser.nextToken();
+                tail.set(name, mParser.readValueAsTree());
+            }
+
+            // Groups may come after rows, they are applied at the end of the body
+            bt.getGroup().addAll(mBodyReader.<BodyType> readValue(tail).getGroup());
+            warnIgnored(tail, "index");
+        }
+
+        finishTab();
+    }
+
+    private void finishTab() throws IOException {
+        if (!mInTab) {
+            return;
+        }
+
+        final var tail = JsonNodeFactory.instance.objectNode();
+        while (mParser.nextToken() == JsonToken.FIELD_NAME) {
+            final var name = mParser.currentName();
+            mParser.nextToken();
+            tail.set(name, mParser.readValueAsTree());
+        }
+        mInTab = false;
+
+        // Post before the body : already read with the head, only replaced if given again
+        if (tail.has("post")) {
+            if (mTab.getPost() != null) {
+                LOGGER.warn("finishTab() : element post is given twice in tab {} while streaming the YAML, the last one is used", mTab.getId());
+            }
+            mTab.setPost(mTabReader.<TabType> readValue(tail).getPost());
+        }
+        warnIgnored(tail, "id");
+        warnIgnored(tail, "header");
+    }
+
+    private void finish() throws IOException {
+        if (mDone) {
+            return;
+        }
+        mDone = true;
+
+        // Rest of the root : styles must be read before generating, too late now
+        while (mParser.nextToken() == JsonToken.FIELD_NAME) {
+            LOGGER.warn("finish() : element {} after tabs is ignored while streaming the YAML", mParser.currentName());
+            mParser.nextToken();
+            mParser.skipChildren();
+        }
+    }
+
+    private static void warnIgnored(final ObjectNode tail, final String name) {
+        if (tail.has(name)) {
+            LOGGER.warn("warnIgnored() : element {} is read too late while streaming the YAML, ignored", name);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mParser.close();
+    }
+}
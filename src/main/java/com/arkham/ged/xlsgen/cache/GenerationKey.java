@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.arkham.ged.streams.GED_PROTOCOL;
+import com.arkham.ged.streams.StreamProtocolFactory;
+import com.arkham.ged.yaml.RootExcel;
+
+/**
+ * Compute the content address of a generation : hash of YAML bytes, plus the version (mtime and size) of the model and of every file read
+ * while generating (properties, header images, import()). The model name, password and resource names are part of the YAML bytes. A
+ * resource whose version cannot be known (URL, database, computed import() name) makes the generation not cacheable.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class GenerationKey {
+    private static final String ALGORITHM = "SHA-256";
+
+    private GenerationKey() {
+        // Utility class
+    }
+
+    /**
+     * @return A new digest for YAML bytes
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // Mandatory algorithm for every JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param yamlDigest The digest of YAML bytes
+     * @param re The YAML root
+     * @return The key in hexadecimal, null if the version of the model or of a resource cannot be known : the generation cannot be cached
+     */
+    public static String compute(final byte[] yamlDigest, final RootExcel re) {
+        final var modelVersion = getVersion(re.getGeneral().getModel());
+        if (modelVersion == null) {
+            return null;
+        }
+
+        final var resources = YamlResources.of(re);
+        if (!resources.isComplete()) {
+            return null;
+        }
+
+        final var md = newDigest();
+        md.update(yamlDigest);
+        md.update(modelVersion.getBytes(StandardCharsets.UTF_8));
+        for (final String name : resources.getNames()) {
+            // Fichier absent ou autre schéma : impossible de savoir s'il a changé
+            final var version = getVersion(name);
+            if (version == null) {
+                return null;
+            }
+            md.update(name.getBytes(StandardCharsets.UTF_8));
+            md.update(version.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /**
+     * @param name A resource name, with or without scheme
+     * @return The version of a file resource, null otherwise or if the file cannot be read
+     */
+    public static String getVersion(final String name) {
+        if (GED_PROTOCOL.getScheme(name) != GED_PROTOCOL.FILE) {
+            return null;
+        }
+
+        try {
+            final var path = Paths.get(StreamProtocolFactory.getValue(name));
+
+            return "|" + Files.getLastModifiedTime(path).toMillis() + "|" + Files.size(path);
+        } catch (final IOException e) { // NOSONAR
+            return null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Content-addressed cache of generated workbooks, shared by REST services and the directory scanner. Keys are computed by
+ * {@link GenerationKey}. Results are stored on disk (LRU under <code>yeti.cache.max-disk</code>), the small ones are also kept in memory (LRU
+ * under <code>yeti.cache.max-memory</code>).
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class GenerationResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationResultCache.class);
+
+    private static final String SUFFIX = ".bin";
+
+    @ConfigProperty(name = "yeti.cache.enabled", defaultValue = "true")
+    boolean mEnabled;
+
+    @ConfigProperty(name = "bed.file.path")
+    Optional<String> mBasePath;
+
+    @ConfigProperty(name = "yeti.cache.dir")
+    Optional<String> mDirName;
+
+    @ConfigProperty(name = "yeti.cache.max-disk", defaultValue = "1g")
+    MemorySize mMaxDisk;
+
+    @ConfigProperty(name = "yeti.cache.max-memory", defaultValue = "64m")
+    MemorySize mMaxMemory;
+
+    @ConfigProperty(name = "yeti.cache.max-memory-entry", defaultValue = "1m")
+    MemorySize mMaxMemoryEntry;
+
+    private Path mDir;
+    private LruCache<String, Path> mDisk;
+    private LruCache<String, byte[]> mMemory;
+    private final SingleFlight mFlights = new SingleFlight();
+
+    @PostConstruct
+    void init() {
+        if (!mEnabled) {
+            LOGGER.info("init() : generation cache is disabled");
+            return;
+        }
+
+        final var base = mBasePath.orElse(System.getProperty("java.io.tmpdir"));
+        final var dir = Paths.get(mDirName.orElse(Paths.get(base, "yeti-cache").toString()));
+
+        try {
+            Files.createDirectories(dir);
+        } catch (final IOException e) {
+            LOGGER.error("init() : cannot create cache directory {}, generation cache is disabled : {}", dir, e);
+            return;
+        }
+
+        mDir = dir;
+        mMemory = new LruCache<>(mMaxMemory.asLongValue(), b -> b.length, null);
+        mDisk = new LruCache<>(mMaxDisk.asLongValue(), GenerationResultCache::size, (k, p) -> delete(p));
+        load();
+
+        LOGGER.info("init() : generation cache in {}, {} entries, disk={} memory={}", dir, mDisk.size(), mMaxDisk.asLongValue(), mMaxMemory.asLongValue());
+    }
+
+    /**
+     * @return false if disabled by <code>yeti.cache.enabled=false</code> or if its directory cannot be created
+     */
+    public boolean isEnabled() {
+        return mDisk != null;
+    }
+
+    /**
+     * Index the results of a previous run, oldest first so that they are evicted first
+     */
+    private void load() {
+        try (var files = Files.list(mDir)) {
+            files.sorted(Comparator.comparingLong(GenerationResultCache::lastModified)).forEach(p -> {
+                final var name = p.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    mDisk.put(name.substring(0, name.length() - SUFFIX.length()), p);
+                } else {
+                    // Unfinished temporary file
+                    delete(p);
+                }
+            });
+        } catch (final IOException e) {
+            LOGGER.warn("load() : cannot read cache directory {} : {}", mDir, e.getMessage());
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return true if a result is available
+     */
+    public boolean contains(final String key) {
+        return key != null && (mMemory.get(key) != null || mDisk.get(key) != null);
+    }
+
+    /**
+     * @param key The key
+     * @return The stream of the cached result, null if not available
+     */
+    public InputStream open(final String key) {
+        if (key == null) {
+            return null;
+        }
+
+        final var bytes = mMemory.get(key);
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        final var path = mDisk.get(key);
+        if (path != null) {
+            try {
+                return Files.newInputStream(path);
+            } catch (final IOException e) {
+                // Deleted behind our back
+                LOGGER.warn("open() : cannot read cached result {} : {}", path, e.getMessage());
+                mDisk.remove(key);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Coalesce identical concurrent generations : only the leader generates (and {@link #put(String, Path)}), the others wait then
+     * {@link #open(String)} the result.
+     *
+     * @param key The key
+     * @return The flight, must be closed once the result is stored (or failed)
+     */
+    public SingleFlight.Flight begin(final String key) {
+        return mFlights.begin(key);
+    }
+
+    /**
+     * @return A new temporary file in the cache directory, to be given to {@link #put(String, Path)}
+     * @throws IOException Exception while creating the file
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createFile(mDir.resolve(UUID.randomUUID() + ".tmp"));
+    }
+
+    /**
+     * Store a result, the file is moved into the cache
+     *
+     * @param key The key
+     * @param file The generated workbook, for example created by {@link #createTempFile()}
+     * @throws IOException Exception while moving the file
+     */
+    public void put(final String key, final Path file) throws IOException {
+        if (mDisk.get(key) != null) {
+            // Content-addressed : same key, same result
+            delete(file);
+            return;
+        }
+
+        final var target = mDir.resolve(key + SUFFIX);
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        final var size = size(target);
+        if (size <= mMaxMemoryEntry.asLongValue()) {
+            mMemory.put(key, Files.readAllBytes(target));
+        }
+        mDisk.put(key, target);
+    }
+
+    private static long size(final Path path) {
+        try {
+            return Files.size(path);
+        } catch (final IOException e) { // NOSONAR
+            return 0L;
+        }
+    }
+
+    private static long lastModified(final Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (final IOException e) { // NOSONAR
+            return 0L;
+        }
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.warn("delete() : cannot delete file {} : {}", path, e.getMessage());
+        }
+    }
+}
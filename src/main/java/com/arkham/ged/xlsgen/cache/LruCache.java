@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread safe LRU map bounded by the total weight of its values (bytes for example). The eviction listener is called outside of the lock.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+public final class LruCache<K, V> {
+    private final LinkedHashMap<K, V> mMap = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<V> mWeigher;
+    private final BiConsumer<K, V> mOnEvict;
+    private final long mMaxWeight;
+
+    private long mWeight;
+
+    /**
+     * Constructor LruCache
+     *
+     * @param maxWeight The maximum total weight, 0 or less disable the cache
+     * @param weigher Compute the weight of a value, must be constant for a given value
+     * @param onEvict Called for each value evicted or replaced, may be null
+     */
+    public LruCache(final long maxWeight, final ToLongFunction<V> weigher, final BiConsumer<K, V> onEvict) {
+        mMaxWeight = maxWeight;
+        mWeigher = weigher;
+        mOnEvict = onEvict;
+    }
+
+    /**
+     * @param key The key
+     * @return The value or null, the entry becomes the most recently used
+     */
+    public V get(final K key) {
+        synchronized (mMap) {
+            return mMap.get(key);
+        }
+    }
+
+    /**
+     * Add or replace a value, then evict the least recently used entries while over the maximum weight. A value heavier than the maximum is
+     * not kept (and given to the eviction listener).
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(final K key, final V value) {
+        final List<Map.Entry<K, V>> evicted = new ArrayList<>();
+
+        synchronized (mMap) {
+            final var w = mWeigher.applyAsLong(value);
+            if (w > mMaxWeight) {
+                evicted.add(Map.entry(key, value));
+            } else {
+                final var old = mMap.put(key, value);
+                mWeight += w;
+                if (old != null) {
+                    mWeight -= mWeigher.applyAsLong(old);
+                    if (!old.equals(value)) {
+                        evicted.add(Map.entry(key, old));
+                    }
+                }
+
+                final Iterator<Map.Entry<K, V>> it = mMap.entrySet().iterator();
+                while (mWeight > mMaxWeight && it.hasNext()) {
+                    final var e = it.next();
+                    mWeight -= mWeigher.applyAsLong(e.getValue());
+                    evicted.add(Map.entry(e.getKey(), e.getValue()));
+                    it.remove();
+                }
+            }
+        }
+
+        notifyEvicted(evicted);
+    }
+
+    /**
+     * @param key The key
+     * @return The removed value or null, the eviction listener is not called
+     */
+    public V remove(final K key) {
+        synchronized (mMap) {
+            final var old = mMap.remove(key);
+            if (old != null) {
+                mWeight -= mWeigher.applyAsLong(old);
+            }
+
+            return old;
+        }
+    }
+
+    /**
+     * Remove all entries, the eviction listener is called for each of them
+     */
+    public void clear() {
+        final List<Map.Entry<K, V>> evicted = new ArrayList<>();
+
+        synchronized (mMap) {
+            for (final Map.Entry<K, V> e : mMap.entrySet()) {
+                evicted.add(Map.entry(e.getKey(), e.getValue()));
+            }
+            mMap.clear();
+            mWeight = 0;
+        }
+
+        notifyEvicted(evicted);
+    }
+
+    /**
+     * @return The current total weight
+     */
+    public long getWeight() {
+        synchronized (mMap) {
+            return mWeight;
+        }
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public int size() {
+        synchronized (mMap) {
+            return mMap.size();
+        }
+    }
+
+    private void notifyEvicted(final List<Map.Entry<K, V>> evicted) {
+        if (mOnEvict != null) {
+            for (final Map.Entry<K, V> e : evicted) {
+                mOnEvict.accept(e.getKey(), e.getValue());
+            }
+        }
+    }
+}
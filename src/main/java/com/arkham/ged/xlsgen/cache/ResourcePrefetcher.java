@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.streams.GED_PROTOCOL;
+import com.arkham.ged.streams.StreamProtocolException;
+import com.arkham.ged.yaml.RootExcel;
+
+/**
+ * Read in the background, all at once, the external resources of a YAML : header images, files of <code>import()</code> with a literal
+ * name, properties file. They land in the {@link StreamFetchCache}, the generation then finds them in memory (or waits for the fetch in
+ * progress) instead of reading them one after another. Only file and URL resources are prefetched : the other schemes may need the
+ * database connection of the generation.<br>
+ * <code>yeti.prefetch.parallelism</code> threads at most, 0 disables the prefetch.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class ResourcePrefetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePrefetcher.class);
+
+    @ConfigProperty(name = "yeti.prefetch.parallelism", defaultValue = "8")
+    int mParallelism;
+
+    @Inject
+    StreamFetchCache mFetchCache;
+
+    private ExecutorService mExecutor;
+
+    @PostConstruct
+    void init() {
+        if (mParallelism <= 0 || !mFetchCache.isEnabled()) {
+            LOGGER.info("init() : prefetch is disabled");
+            return;
+        }
+
+        LOGGER.info("init() : prefetch on {} threads", mParallelism);
+
+        // Threads mostly waiting for I/O, daemon : never block the shutdown
+        final var count = new AtomicInteger();
+        mExecutor = Executors.newFixedThreadPool(mParallelism, r -> {
+            final var t = new Thread(r, "yeti-prefetch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (mExecutor != null) {
+            mExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Start to read the resources of the YAML, without waiting
+     *
+     * @param re The YAML root (only the tabs already read while streaming)
+     */
+    public void prefetch(final RootExcel re) {
+        final var executor = mExecutor;
+        if (executor == null) {
+            return;
+        }
+
+        final var names = YamlResources.of(re).getNames();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("prefetch() : {} resources", Integer.valueOf(names.size()));
+        }
+
+        for (final String name : names) {
+            // Other schemes may need the database connection of the generation
+            final var scheme = GED_PROTOCOL.getScheme(name);
+            if (scheme != GED_PROTOCOL.FILE && scheme != GED_PROTOCOL.URL) {
+                continue;
+            }
+
+            try {
+                executor.execute(() -> fetch(name));
+            } catch (final RejectedExecutionException e) { // NOSONAR : read later by the generation
+                LOGGER.debug("prefetch() : {} not prefetched : {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private void fetch(final String name) {
+        try {
+            mFetchCache.read(name, null);
+        } catch (final IOException | StreamProtocolException | RuntimeException e) { // NOSONAR : read again and reported by the generation
+            LOGGER.debug("fetch() : {} not prefetched : {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesce identical concurrent works : the first caller for a key is the leader and does the work, the others wait for the leader to end
+ * then read its result somewhere else (the {@link GenerationResultCache} for example).
+ *
+ * <pre>
+ * try (var flight = sf.begin(key)) {
+ *     if (!flight.isLeader()) {
+ *         flight.await();
+ *         // read the result of the leader
+ *     }
+ *     // leader work
+ * }
+ * </pre>
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class SingleFlight {
+    private final Map<String, CompletableFuture<Void>> mFlights = new ConcurrentHashMap<>();
+
+    /**
+     * One caller of a flight
+     */
+    public final class Flight implements AutoCloseable {
+        private final String mKey;
+        private final CompletableFuture<Void> mFuture;
+        private final boolean mLeader;
+
+        Flight(final String key, final CompletableFuture<Void> future, final boolean leader) {
+            mKey = key;
+            mFuture = future;
+            mLeader = leader;
+        }
+
+        /**
+         * @return true if the caller has to do the work
+         */
+        public boolean isLeader() {
+            return mLeader;
+        }
+
+        /**
+         * Wait for the leader to end, successfully or not. Return immediately for the leader.
+         *
+         * @throws InterruptedException The wait has been interrupted
+         */
+        public void await() throws InterruptedException {
+            if (!mLeader) {
+                try {
+                    mFuture.get();
+                } catch (final ExecutionException e) { // NOSONAR
+                    // Never completed exceptionally, the result (or not) is read elsewhere
+                }
+            }
+        }
+
+        /**
+         * The leader releases the waiting callers, nothing for the others
+         */
+        @Override
+        public void close() {
+            if (mLeader) {
+                mFlights.remove(mKey, mFuture);
+                mFuture.complete(null);
+            }
+        }
+    }
+
+    /**
+     * @param key The key of the work
+     * @return The flight, must be closed
+     */
+    public Flight begin(final String key) {
+        final var mine = new CompletableFuture<Void>();
+        final var current = mFlights.putIfAbsent(key, mine);
+        if (current == null) {
+            return new Flight(key, mine, true);
+        }
+
+        return new Flight(key, current, false);
+    }
+
+    /**
+     * @return The number of works in progress
+     */
+    public int size() {
+        return mFlights.size();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.sql.Connection;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.streams.GED_PROTOCOL;
+import com.arkham.ged.streams.NewHttpStreamProtocolAdapter;
+import com.arkham.ged.streams.StreamProtocolException;
+import com.arkham.ged.streams.StreamProtocolFactory;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Bytes of the resources read through {@link StreamProtocolFactory} (images, models), shared between generations. An entry is revalidated
+ * at each use : by its version (last modified time and size) for a file, by a conditional GET (ETag / Last-Modified) for an URL. The total
+ * size is bounded by <code>yeti.fetch.max-memory</code>, least recently used entries are evicted first. Concurrent reads of the same
+ * resource are coalesced : a generation asking for an image being prefetched waits for it (see {@link ResourcePrefetcher}).
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class StreamFetchCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamFetchCache.class);
+
+    /**
+     * A resource read : its bytes and its name (for the extension)
+     */
+    public static final class Resource {
+        private final byte[] mBytes;
+        private final String mStreamName;
+        private final String mVersion;
+        private final String mETag;
+        private final String mLastModified;
+
+        Resource(final byte[] bytes, final String streamName, final String version, final String etag, final String lastModified) {
+            mBytes = bytes; // NOSONAR
+            mStreamName = streamName;
+            mVersion = version;
+            mETag = etag;
+            mLastModified = lastModified;
+        }
+
+        /**
+         * @return The content, shared : must not be modified
+         */
+        public byte[] getBytes() {
+            return mBytes; // NOSONAR
+        }
+
+        /**
+         * @return The optional stream name
+         */
+        public String getStreamName() {
+            return mStreamName;
+        }
+
+        /**
+         * @return true if the entry can be revalidated
+         */
+        boolean isValidable() {
+            return mVersion != null || mETag != null || mLastModified != null;
+        }
+    }
+
+    @ConfigProperty(name = "yeti.fetch.enabled", defaultValue = "true")
+    boolean mEnabled;
+
+    @ConfigProperty(name = "yeti.fetch.max-memory", defaultValue = "64m")
+    MemorySize mMaxMemory;
+
+    private LruCache<String, Resource> mResources;
+    private final SingleFlight mFlights = new SingleFlight();
+
+    @PostConstruct
+    void init() {
+        if (!mEnabled) {
+            LOGGER.info("init() : fetch cache is disabled");
+            return;
+        }
+
+        mResources = new LruCache<>(mMaxMemory.asLongValue(), r -> r.mBytes.length, null);
+
+        LOGGER.info("init() : fetch cache of {} bytes", mMaxMemory.asLongValue());
+    }
+
+    /**
+     * @return false if disabled by <code>yeti.fetch.enabled=false</code>
+     */
+    public boolean isEnabled() {
+        return mResources != null;
+    }
+
+    /**
+     * Read a resource, from the cache if enabled
+     *
+     * @param name The resource name, with optional scheme
+     * @param con Optional database connection
+     * @return The resource
+     * @throws IOException Exception while reading the resource
+     * @throws StreamProtocolException The resource cannot be reached
+     */
+    public Resource read(final String name, final Connection con) throws IOException, StreamProtocolException {
+        if (mResources == null) {
+            return fetch(name, con, null, null);
+        }
+
+        return get(name, con);
+    }
+
+    /**
+     * @param name The resource name, with optional scheme
+     * @param con Optional database connection
+     * @return The resource, revalidated if it was cached
+     * @throws IOException Exception while reading the resource
+     * @throws StreamProtocolException The resource cannot be reached
+     */
+    private Resource get(final String name, final Connection con) throws IOException, StreamProtocolException {
+        try (var flight = mFlights.begin(name)) {
+            if (!flight.isLeader()) {
+                try {
+                    flight.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+
+                // Lu (ou revalidé) à l'instant par un autre : inutile de recommencer
+                final var fresh = mResources.get(name);
+                if (fresh != null) {
+                    return fresh;
+                }
+            }
+
+            return load(name, con, mResources.get(name));
+        }
+    }
+
+    private Resource load(final String name, final Connection con, final Resource cached) throws IOException, StreamProtocolException {
+        final var scheme = GED_PROTOCOL.getScheme(name);
+
+        // Fichier : la version (date de modification et taille) suffit, pas besoin de le relire
+        final var version = scheme == GED_PROTOCOL.FILE ? GenerationKey.getVersion(name) : null;
+        if (cached != null && version != null && version.equals(cached.mVersion)) {
+            return cached;
+        }
+
+        final var result = fetch(name, con, version, scheme == GED_PROTOCOL.URL ? cached : null);
+        if (result == cached) {
+            LOGGER.debug("load() : {} not modified", name);
+        } else if (result.isValidable()) {
+            mResources.put(name, result);
+        } else if (cached != null) {
+            mResources.remove(name);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param known The cached version of an URL, for a conditional GET, may be null
+     */
+    private static Resource fetch(final String name, final Connection con, final String version, final Resource known) throws IOException, StreamProtocolException {
+        try (var spa = StreamProtocolFactory.create(name, con)) {
+            final var http = spa instanceof final NewHttpStreamProtocolAdapter h ? h : null;
+            if (http != null && known != null) {
+                http.setValidators(known.mETag, known.mLastModified);
+            }
+
+            try (var is = spa.getStream()) {
+                if (is == null) {
+                    throw new IOException("Resource " + name + " cannot be read");
+                }
+
+                if (http == null) {
+                    return new Resource(is.readAllBytes(), spa.getStreamName(), version, null, null);
+                }
+
+                if (known != null && http.getStatusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    return known;
+                }
+
+                // Only a successful response is worth keeping
+                final var ok = http.getStatusCode() == HttpURLConnection.HTTP_OK;
+
+                return new Resource(is.readAllBytes(), spa.getStreamName(), null, ok ? http.getETag() : null, ok ? http.getLastModified() : null);
+            }
+        }
+    }
+}
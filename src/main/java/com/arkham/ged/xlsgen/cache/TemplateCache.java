@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.sql.Connection;
+import java.util.HexFormat;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.streams.StreamProtocolException;
+import com.arkham.ged.streams.StreamProtocolFactory;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Cache of workbook models in memory : the model is read (and decrypted for password protected OOXML) only once, each generation parses
+ * its own workbook from the cached bytes. Keys are the model name, its version (see {@link GenerationKey#getVersion(String)}) and a hash of
+ * the password, so that a wrong password never opens a cached model. The total size is bounded by <code>yeti.template.max-memory</code>.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class TemplateCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateCache.class);
+
+    /**
+     * The model bytes, decrypted or not : binary XLS are decrypted by POI while reading records, the password is still needed
+     */
+    private static final class Template {
+        private final byte[] mBytes;
+        private final boolean mDecrypted;
+
+        Template(final byte[] bytes, final boolean decrypted) {
+            mBytes = bytes;
+            mDecrypted = decrypted;
+        }
+    }
+
+    @ConfigProperty(name = "yeti.template.enabled", defaultValue = "true")
+    boolean mEnabled;
+
+    @ConfigProperty(name = "yeti.template.max-memory", defaultValue = "128m")
+    MemorySize mMaxMemory;
+
+    @Inject
+    StreamFetchCache mFetchCache;
+
+    private LruCache<String, Template> mTemplates;
+
+    @PostConstruct
+    void init() {
+        if (!mEnabled) {
+            LOGGER.info("init() : template cache is disabled");
+            return;
+        }
+
+        mTemplates = new LruCache<>(mMaxMemory.asLongValue(), t -> t.mBytes.length, null);
+
+        LOGGER.info("init() : template cache of {} bytes", mMaxMemory.asLongValue());
+    }
+
+    /**
+     * Open a new workbook from the model, read through the fetch cache if the template cache is disabled
+     *
+     * @param model The model name, with optional scheme
+     * @param password The optional password of the model
+     * @param con Optional database connection
+     * @return A new workbook, owned by the caller
+     * @throws IOException Exception while reading the model
+     * @throws StreamProtocolException The model cannot be reached
+     */
+    public Workbook open(final String model, final String password, final Connection con) throws IOException, StreamProtocolException {
+        final var version = mTemplates == null ? null : GenerationKey.getVersion(model);
+        if (version == null) {
+            // No version, cannot know if the cached bytes are still valid
+            return load(model, password, con);
+        }
+
+        final var key = model + version + "|" + hash(password);
+        var template = mTemplates.get(key);
+        if (template == null) {
+            template = read(model, password, con);
+            mTemplates.put(key, template);
+
+            LOGGER.info("open() : model {} cached, {} bytes", model, template.mBytes.length);
+        }
+
+        return WorkbookFactory.create(new ByteArrayInputStream(template.mBytes), template.mDecrypted ? null : password);
+    }
+
+    /**
+     * Load without template, the bytes may still come from the fetch cache (an URL revalidated by a conditional GET)
+     */
+    private Workbook load(final String model, final String password, final Connection con) throws IOException, StreamProtocolException {
+        final var resource = mFetchCache.read(model, con);
+
+        return WorkbookFactory.create(new ByteArrayInputStream(resource.getBytes()), password);
+    }
+
+    private static Template read(final String model, final String password, final Connection con) throws IOException, StreamProtocolException {
+        final byte[] bytes;
+        try (var spa = StreamProtocolFactory.create(model, con); var is = spa.getStream()) {
+            if (is == null) {
+                throw new IOException("Model " + model + " cannot be read");
+            }
+            bytes = is.readAllBytes();
+        }
+
+        if (FileMagic.valueOf(bytes) == FileMagic.OLE2) {
+            try (var fs = new POIFSFileSystem(new ByteArrayInputStream(bytes))) {
+                if (fs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) {
+                    return new Template(decrypt(fs, password), true);
+                }
+            }
+        }
+
+        return new Template(bytes, false);
+    }
+
+    /**
+     * Decrypt an OOXML model, as done by {@link WorkbookFactory} but only once
+     */
+    private static byte[] decrypt(final POIFSFileSystem fs, final String password) throws IOException {
+        final var info = new EncryptionInfo(fs);
+        final var d = Decryptor.getInstance(info);
+
+        try {
+            if (!d.verifyPassword(password == null ? Decryptor.DEFAULT_PASSWORD : password)) {
+                throw new EncryptedDocumentException("Password incorrect");
+            }
+
+            try (var is = d.getDataStream(fs)) {
+                return is.readAllBytes();
+            }
+        } catch (final GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String hash(final String password) {
+        if (password == null) {
+            return "";
+        }
+
+        final var md = GenerationKey.newDigest();
+
+        return HexFormat.of().formatHex(md.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+}
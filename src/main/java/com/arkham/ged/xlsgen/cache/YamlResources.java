@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.arkham.ged.streams.GED_PROTOCOL;
+import com.arkham.ged.yaml.CellType;
+import com.arkham.ged.yaml.RootExcel;
+import com.arkham.ged.yaml.TabType;
+
+/**
+ * The external resources read while generating a YAML, besides the model : header images, files of <code>import()</code>, properties
+ * file. Names are given with their scheme, as read by the generation.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class YamlResources {
+    /**
+     * import("name") or import('name'), the name being a literal
+     */
+    private static final Pattern IMPORT = Pattern.compile("import\\s*\\(\\s*[\"']([^\"']+)[\"']");
+
+    /**
+     * Any call of import()
+     */
+    private static final Pattern IMPORT_CALL = Pattern.compile("import\\s*\\(");
+
+    private final Set<String> mNames = new LinkedHashSet<>();
+    private boolean mComplete = true;
+
+    private YamlResources() {
+        // See of()
+    }
+
+    /**
+     * @param re The YAML root (only the tabs already read while streaming)
+     * @return The resources of the YAML
+     */
+    public static YamlResources of(final RootExcel re) {
+        final var result = new YamlResources();
+
+        final var properties = re.getGeneral() == null ? null : re.getGeneral().getProperties();
+        if (properties != null) {
+            result.addFile(properties);
+        }
+
+        for (final TabType tab : re.getTab()) {
+            if (tab.getHeader() != null) {
+                result.collect(tab.getHeader().getCell(), true);
+            }
+            if (tab.getBody() != null) {
+                tab.getBody().getRow().forEach(rt -> result.collect(rt.getCell(), false));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The names with their scheme, in YAML order without duplicates
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(mNames);
+    }
+
+    /**
+     * @return false if a resource is only known while generating (import() of a computed name)
+     */
+    public boolean isComplete() {
+        return mComplete;
+    }
+
+    private void collect(final List<CellType> cells, final boolean header) {
+        for (final CellType ct : cells) {
+            // Images are drawn for the header cells only
+            if (header && ct.getImage() != null && ct.getImage().getValue() != null) {
+                mNames.add(ct.getImage().getValue());
+            }
+
+            final var value = ct.getValue();
+            if (value != null && value.contains("import")) {
+                var literals = 0;
+                final var m = IMPORT.matcher(value);
+                while (m.find()) {
+                    addFile(m.group(1).trim());
+                    literals++;
+                }
+
+                var calls = 0;
+                final var c = IMPORT_CALL.matcher(value);
+                while (c.find()) {
+                    calls++;
+                }
+
+                mComplete &= calls == literals;
+            }
+        }
+    }
+
+    /**
+     * A plain file name, as read by import() or for the properties
+     */
+    private void addFile(final String filename) {
+        mNames.add(GED_PROTOCOL.FILE.getScheme() + filename);
+    }
+}
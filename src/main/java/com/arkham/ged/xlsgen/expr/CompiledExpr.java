@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.expr;
+
+import com.arkham.common.solver.expr.ExprException;
+
+/**
+ * An expression parsed once : the execution tree of {@link com.arkham.common.solver.expr.ExprParser}, or the parsing error to report each
+ * time the expression is used (same behavior than solving the text). Immutable, shared between generations.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class CompiledExpr {
+    private final String mText;
+    private final Object mTree;
+    private final ExprException mError;
+
+    CompiledExpr(final String text, final Object tree, final ExprException error) {
+        mText = text;
+        mTree = tree;
+        mError = error;
+    }
+
+    /**
+     * @return The source text of the expression
+     */
+    public String getText() {
+        return mText;
+    }
+
+    /**
+     * @return The execution tree
+     * @throws ExprException The expression cannot be parsed
+     */
+    public Object getTree() throws ExprException {
+        if (mError != null) {
+            throw mError;
+        }
+
+        return mTree;
+    }
+
+    @Override
+    public String toString() {
+        return mText;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.expr;
+
+/**
+ * A cell value containing expressions between backquotes, split once : each part is either a {@link String} to copy or a
+ * {@link CompiledExpr} to evaluate. Immutable, shared between generations.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class CompiledValue {
+    private final Object[] mParts;
+    private final int mLength;
+
+    CompiledValue(final Object[] parts, final int length) {
+        mParts = parts;
+        mLength = length;
+    }
+
+    /**
+     * @return The number of parts
+     */
+    public int size() {
+        return mParts.length;
+    }
+
+    /**
+     * @param i The index of the part
+     * @return A {@link String} or a {@link CompiledExpr}
+     */
+    public Object getPart(final int i) {
+        return mParts[i];
+    }
+
+    /**
+     * @return The length of the source value, used as weight in cache
+     */
+    int getLength() {
+        return mLength;
+    }
+}
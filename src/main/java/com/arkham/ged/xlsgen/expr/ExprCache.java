@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.expr;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.common.solver.expr.ExprException;
+import com.arkham.common.solver.expr.ExprParser;
+import com.arkham.ged.xlsgen.cache.LruCache;
+import com.arkham.ged.xlsgen.util.ExprSplitter;
+import com.arkham.ged.xlsgen.util.ExprSplitterBean;
+
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Cache of compiled values and expressions, keyed by their source text and shared between generations : the same text (for example
+ * <code>`current()+1`</code> in each row of a body) is split and parsed only once. Values without backquote are never compiled nor cached.
+ * The total length of the cached texts is bounded by <code>yeti.expr.max-memory</code>.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class ExprCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExprCache.class);
+
+    @ConfigProperty(name = "yeti.expr.max-memory", defaultValue = "4m")
+    MemorySize mMaxMemory;
+
+    private LruCache<String, CompiledValue> mValues;
+    private LruCache<String, CompiledExpr> mExprs;
+
+    @PostConstruct
+    void init() {
+        mValues = create(0.75, CompiledValue::getLength);
+        mExprs = create(0.25, e -> e.getText().length());
+    }
+
+    private <V> LruCache<String, V> create(final double ratio, final ToLongFunction<V> weigher) {
+        final var max = (long) (mMaxMemory.asLongValue() * ratio);
+
+        LOGGER.info("create() : expression cache of {} chars", max);
+
+        return new LruCache<>(max, weigher, null);
+    }
+
+    /**
+     * @param value The raw value of a cell
+     * @return true if the value contains expressions to solve
+     */
+    public static boolean hasExpr(final String value) {
+        return value != null && value.indexOf('`') >= 0;
+    }
+
+    /**
+     * @param value The raw value of a cell
+     * @return The compiled value, null if the value contains no expression (see {@link #hasExpr(String)})
+     */
+    public CompiledValue compile(final String value) {
+        if (!hasExpr(value)) {
+            return null;
+        }
+
+        final var cache = mValues;
+        var result = cache.get(value);
+        if (result == null) {
+            final List<ExprSplitterBean> beans = new ExprSplitter(value).getSplitted();
+            final var parts = new Object[beans.size()];
+            for (var i = 0; i < parts.length; i++) {
+                final var b = beans.get(i);
+                parts[i] = b.isIsExpr() ? parse(b.getExpr()) : b.getExpr();
+            }
+
+            result = new CompiledValue(parts, value.length());
+            cache.put(value, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param expr An expression, without backquotes
+     * @return The parsed expression, never null
+     */
+    public CompiledExpr parse(final String expr) {
+        final var cache = mExprs;
+        var result = cache.get(expr);
+        if (result == null) {
+            try {
+                result = new CompiledExpr(expr, new ExprParser().parse(expr), null);
+            } catch (final ExprException e) { // NOSONAR : reported when evaluated
+                result = new CompiledExpr(expr, null, e);
+            }
+            cache.put(expr, result);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.expr;
+
+import com.arkham.common.message.ArkhamMessages;
+import com.arkham.common.solver.expr.ExprException;
+import com.arkham.common.solver.expr.ExprValueProvider;
+import com.arkham.common.solver.expr.FunctionNode;
+import com.arkham.common.solver.function.FunctionException;
+
+/**
+ * Evaluate trees of {@link ExprCache} against the functions of a generation, same rules than
+ * {@link com.arkham.common.solver.expr.ExprSolver} but without parsing the text each time.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class ExprEvaluator {
+    private final ExprValueProvider mValueProvider;
+    private final ExprCache mCache;
+
+    /**
+     * Constructor ExprEvaluator
+     *
+     * @param vp The functions, bound to the current generation
+     * @param cache The shared cache of the parsed expressions
+     */
+    public ExprEvaluator(final ExprValueProvider vp, final ExprCache cache) {
+        mValueProvider = vp;
+        mCache = cache;
+    }
+
+    /**
+     * @param expr An expression, without backquotes
+     * @return The result
+     * @throws ExprException Parsing or evaluation error
+     */
+    public Object solve(final String expr) throws ExprException {
+        return solve(mCache.parse(expr));
+    }
+
+    /**
+     * @param expr A compiled expression
+     * @return The result
+     * @throws ExprException Parsing or evaluation error
+     */
+    public Object solve(final CompiledExpr expr) throws ExprException {
+        return evaluate(expr.getTree());
+    }
+
+    private Object evaluate(final Object node) throws ExprException {
+        if (!(node instanceof FunctionNode fn)) {
+            // Literal
+            return node;
+        }
+
+        final var f = mValueProvider.getFunction(fn.getName());
+        if (f == null) {
+            throw new ExprException(ArkhamMessages.Solver.Expr.unknownFunction, fn.getName());
+        }
+
+        final var params = fn.getParams();
+        try {
+            f.checkParamsCount(params.length);
+
+            final var values = new Object[params.length];
+            for (var i = 0; i < params.length; i++) {
+                if (f.shouldSolveParam(i, values)) {
+                    values[i] = evaluate(params[i]);
+                    f.checkParam(i, values);
+                }
+            }
+
+            return f.invoke(values);
+        } catch (final FunctionException e) {
+            throw new ExprException(e, ArkhamMessages.Solver.Expr.functionInvocationProblem, fn.getName());
+        }
+    }
+}
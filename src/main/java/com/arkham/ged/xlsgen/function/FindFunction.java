@@ -10,8 +10,6 @@
  */
 package com.arkham.ged.xlsgen.function;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.util.CellReference;
 
 import com.arkham.common.solver.function.Function;
@@ -25,7 +23,6 @@ import com.arkham.ged.xlsgen.FunctionValueProvider;
  */
 public class FindFunction extends Function {
     private static final Integer DEF = Integer.valueOf(-1);
-    private static final int MAX_SCAN = 1000;
 
     private final FunctionValueProvider mFvp;
 
@@ -63,55 +60,13 @@ public class FindFunction extends Function {
         final var col1 = Math.min(c1.getCol(), c2.getCol());
         final var col2 = Math.max(c1.getCol(), c2.getCol());
 
-        var index = indexStart;
-        final var indexMax = indexStart + MAX_SCAN;
-
-        // Security : stop scanning after index + MAX
-        while (index < indexMax) {
-            final var row = mFvp.getSheet().getRow((int) index);
-            if (isEmpty(col1, col2, row)) {
-                return index;
-            }
-
-            index++;
+        // No limit any more : the provider answers from its occupancy index
+        final var index = mFvp.findEmptyRow(col1, col2, (int) indexStart);
+        // Limite du format du classeur (65535 en .xls, 1048575 en .xlsx)
+        if (index > mFvp.getSheet().getWorkbook().getSpreadsheetVersion().getLastRowIndex()) {
+            return DEF;
         }
 
-        return DEF;
-    }
-
-    private static boolean isEmpty(int col1, int col2, Row row) {
-        if (row == null) {
-            return true;
-        }
-
-        // Bound included
-        var res = true;
-        for (var i = col1; i <= col2; i++) {
-            res = res && isEmpty(row.getCell(i));
-        }
-
-        return res;
-    }
-
-    private static boolean isEmpty(Cell cell) {
-        if (cell == null) {
-            return true;
-        }
-
-        // final CellType ct = cell.getCellTypeEnum();
-        switch (cell.getCellType()) {
-            case BLANK:
-                return true;
-
-            case NUMERIC:
-                return false;
-
-            default:
-                break;
-        }
-
-        final var v = cell.getStringCellValue();
-
-        return v == null || "".equals(v.trim());
+        return Long.valueOf(index);
     }
 }
@@ -14,17 +14,20 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.arkham.common.solver.function.Function;
 import com.arkham.common.solver.function.FunctionExecutionException;
+import com.arkham.ged.streams.GED_PROTOCOL;
+import com.arkham.ged.streams.StreamProtocolException;
+import com.arkham.ged.xlsgen.FunctionValueProvider;
+import com.arkham.ged.xlsgen.cache.StreamFetchCache;
 
 /**
- * Get the content of a file as text result
+ * Get the content of a file as text result. The file is read through the {@link StreamFetchCache} : prefetched with the YAML when its name is
+ * a literal, kept in memory while not modified.
  *
  * @author arocher / Arkham asylum
  * @version 1.0
@@ -35,6 +38,12 @@ public class ImportFileFunction extends Function {
 
     private static final String DEFAULT_RESULT = "".intern();
 
+    private final FunctionValueProvider mFvp;
+
+    ImportFileFunction(final FunctionValueProvider fvp) {
+        mFvp = fvp;
+    }
+
     @Override
     public String getName() {
         return "import";
@@ -53,7 +62,6 @@ public class ImportFileFunction extends Function {
     @Override
     public Object invoke(final Object... params) throws FunctionExecutionException {
         final var filename = (String) params[0];
-        final var path = Paths.get(filename.trim());
 
         var charset = "UTF-8";
         if (params.length > 1) {
@@ -61,10 +69,10 @@ public class ImportFileFunction extends Function {
         }
 
         try {
-            final var b = Files.readAllBytes(path);
+            final var b = mFvp.readResource(GED_PROTOCOL.FILE.getScheme() + filename.trim());
 
             return new String(b, getCharset(charset));
-        } catch (@SuppressWarnings("unused") final IOException e) { // NOSONAR : not blocking at all
+        } catch (@SuppressWarnings("unused") final IOException | StreamProtocolException e) { // NOSONAR : not blocking at all
             LOGGER.debug("invoke() : file \"{}\" not found", filename);
         }
 
@@ -31,7 +31,7 @@ public class XlsgenExprValueProvider extends ExprValueProvider {
         registerFunction(new CurrentIndexFunction(fvp));
 
         // Global
-        registerFunction(new ImportFileFunction());
+        registerFunction(new ImportFileFunction(fvp));
         registerFunction(new PropertyFunction(fvp));
     }
 }
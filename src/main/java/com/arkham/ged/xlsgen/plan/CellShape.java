@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import com.arkham.ged.xlsgen.transformer.ITransformer;
+import com.arkham.ged.yaml.CellValueType;
+
+/**
+ * What is common to all the cells of a column in a body : column index, value type and its transformer, style name. Immutable, so shared
+ * between rows and between generations.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class CellShape {
+    private final int mCol;
+    private final CellValueType mType;
+    private final ITransformer mTransformer;
+    private final String mStyle;
+
+    CellShape(final int col, final CellValueType type, final ITransformer transformer, final String style) {
+        mCol = col;
+        mType = type;
+        mTransformer = transformer;
+        mStyle = style;
+    }
+
+    /**
+     * @return The 0 based column index
+     */
+    public int getCol() {
+        return mCol;
+    }
+
+    /**
+     * @return The value type
+     */
+    public CellValueType getType() {
+        return mType;
+    }
+
+    /**
+     * @return The transformer of the raw value, null if the type has none
+     */
+    public ITransformer getTransformer() {
+        return mTransformer;
+    }
+
+    /**
+     * @return The style name, may be null
+     */
+    public String getStyle() {
+        return mStyle;
+    }
+}
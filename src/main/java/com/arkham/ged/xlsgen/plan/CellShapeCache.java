@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import java.util.Objects;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.xlsgen.cache.LruCache;
+import com.arkham.ged.yaml.CellValueType;
+
+/**
+ * Cache of the {@link CellShape} shared between generations : the cells of the bodies of the same YAML shape get the same instances. The
+ * number of shapes is bounded by <code>yeti.plan.max-shapes</code>, the least recently used are evicted.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 18 oct. 2026
+ */
+@ApplicationScoped
+public class CellShapeCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CellShapeCache.class);
+
+    @ConfigProperty(name = "yeti.plan.max-shapes", defaultValue = "4096")
+    int mMaxShapes;
+
+    private LruCache<Key, CellShape> mShapes;
+
+    @PostConstruct
+    void init() {
+        LOGGER.info("init() : cell shape cache of {} shapes", Integer.valueOf(mMaxShapes));
+
+        mShapes = new LruCache<>(mMaxShapes, s -> 1, null);
+    }
+
+    /**
+     * @param key The key of the shape
+     * @return The shape or null
+     */
+    CellShape get(final Key key) {
+        return mShapes.get(key);
+    }
+
+    /**
+     * @param key The key of the shape
+     * @param shape The shape
+     */
+    void put(final Key key, final CellShape shape) {
+        mShapes.put(key, shape);
+    }
+
+    /**
+     * What a shape is computed from : reference and style of the cell, its type, and the source declared by the format of the style (the same
+     * style name may declare another source from a YAML to another)
+     */
+    static final class Key {
+        private final String mRef;
+        private final String mStyle;
+        private final CellValueType mType;
+        private final String mSource;
+        private final String mLocale;
+        private final int mHash;
+
+        Key(final String ref, final String style, final CellValueType type, final String source, final String locale) {
+            mRef = ref;
+            mStyle = style;
+            mType = type;
+            mSource = source;
+            mLocale = locale;
+            mHash = Objects.hash(ref, style, type, source, locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof final Key other)) {
+                return false;
+            }
+
+            return mHash == other.mHash && mType == other.mType && Objects.equals(mRef, other.mRef) && Objects.equals(mStyle, other.mStyle) && Objects.equals(mSource, other.mSource) && Objects.equals(mLocale, other.mLocale);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import com.arkham.ged.xlsgen.expr.CompiledValue;
+import com.arkham.ged.yaml.CellType;
+
+/**
+ * A body cell ready to be written : its shape, the index of its style in {@link ExecutionPlan#bind(com.arkham.ged.xlsgen.builder.ExcelStyleBuilder)}
+ * and, for STRING and FORMULA, its value already split in text and parsed expressions.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class CompiledCell {
+    private final CellShape mShape;
+    private final int mStyleId;
+    private final CellType mSource;
+    private final CompiledValue mParts;
+
+    CompiledCell(final CellShape shape, final int styleId, final CellType source, final CompiledValue parts) {
+        mShape = shape;
+        mStyleId = styleId;
+        mSource = source;
+        mParts = parts;
+    }
+
+    /**
+     * @return The shared shape
+     */
+    public CellShape getShape() {
+        return mShape;
+    }
+
+    /**
+     * @return The style index, -1 if none
+     */
+    public int getStyleId() {
+        return mStyleId;
+    }
+
+    /**
+     * @return The YAML cell (value, link, comment, ...)
+     */
+    public CellType getSource() {
+        return mSource;
+    }
+
+    /**
+     * @return The compiled value, null if the value contains no expression (or the type is not STRING nor FORMULA)
+     */
+    public CompiledValue getParts() {
+        return mParts;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import com.arkham.ged.yaml.RowType;
+
+/**
+ * A body row : its YAML definition (mode, index, height, ...) and its compiled cells
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class CompiledRow {
+    private final RowType mSource;
+    private final CompiledCell[] mCells;
+
+    CompiledRow(final RowType source, final CompiledCell[] cells) {
+        mSource = source;
+        mCells = cells;
+    }
+
+    /**
+     * @return The YAML row
+     */
+    public RowType getSource() {
+        return mSource;
+    }
+
+    /**
+     * @return The cells, in YAML order
+     */
+    public CompiledCell[] getCells() {
+        return mCells;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import com.arkham.ged.util.GedUtil;
+import com.arkham.ged.xlsgen.builder.ExcelStyleBuilder;
+
+/**
+ * The YAML compiled once before touching POI : for each tab the body rows with pre-resolved cells, plus the table of the style names used.
+ * Style handles depend on the workbook, they are resolved by {@link #bind(ExcelStyleBuilder)}.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ * @see ExecutionPlanCompiler
+ */
+public final class ExecutionPlan {
+    private static final CompiledRow[] NO_ROW = {};
+
+    private final CompiledRow[][] mBodies;
+    private final List<String> mStyles;
+    private final int mRowCount;
+    private final boolean mMoving;
+    private final Map<String, Integer> mCopyStarts;
+
+    ExecutionPlan(final CompiledRow[][] bodies, final List<String> styles, final int rowCount, final boolean moving, final Map<String, Integer> copyStarts) {
+        mBodies = bodies;
+        mStyles = styles;
+        mRowCount = rowCount;
+        mMoving = moving;
+        mCopyStarts = copyStarts;
+    }
+
+    /**
+     * @return The number of body rows of all the tabs
+     */
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    /**
+     * Streaming writes the rows in order and cannot shift them : the plan is streamable when no row is inserted (INSERTAT), no row goes back
+     * (INDEX, SOLVED, POP) and no copy targets a row of the model (the copy would shift it).
+     *
+     * @param wb The model
+     * @return true if the plan can be written in streaming without losing rows
+     */
+    public boolean isStreamable(final Workbook wb) {
+        if (mMoving) {
+            return false;
+        }
+
+        for (final Map.Entry<String, Integer> e : mCopyStarts.entrySet()) {
+            final var sheet = findSheet(wb, e.getKey());
+            if (sheet != null && e.getValue().intValue() <= sheet.getLastRowNum()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Same lookup than the generation, without creating the sheet
+     */
+    private static Sheet findSheet(final Workbook wb, final String id) {
+        final var index = GedUtil.getInt(id, -1);
+        if (index < 0) {
+            return wb.getSheet(id);
+        }
+
+        return index < wb.getNumberOfSheets() ? wb.getSheetAt(index) : null;
+    }
+
+    /**
+     * @param tab The index of the tab in YAML
+     * @return The compiled body rows, empty if the tab has no body (or has been read while streaming)
+     */
+    public CompiledRow[] getBody(final int tab) {
+        final var rows = tab < mBodies.length ? mBodies[tab] : null;
+
+        return rows == null ? NO_ROW : rows;
+    }
+
+    /**
+     * Resolve the styles of the workbook, once (again when the table has grown while streaming)
+     *
+     * @param esb The styles of the workbook
+     * @return The styles indexed by {@link CompiledCell#getStyleId()}, null for the undefined ones
+     */
+    public CellStyle[] bind(final ExcelStyleBuilder esb) {
+        final var result = new CellStyle[mStyles.size()];
+        for (var i = 0; i < result.length; i++) {
+            result[i] = esb.getCellStyle(mStyles.get(i));
+        }
+
+        return result;
+    }
+}
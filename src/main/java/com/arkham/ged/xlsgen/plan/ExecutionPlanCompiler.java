@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.plan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.util.CellReference;
+
+import com.arkham.ged.xlsgen.expr.CompiledValue;
+import com.arkham.ged.xlsgen.expr.ExprCache;
+import com.arkham.ged.xlsgen.transformer.ITransformer;
+import com.arkham.ged.xlsgen.transformer.TransformerRegistry;
+import com.arkham.ged.yaml.CellType;
+import com.arkham.ged.yaml.CellValueType;
+import com.arkham.ged.yaml.FormatType;
+import com.arkham.ged.yaml.RootExcel;
+import com.arkham.ged.yaml.RowModeType;
+import com.arkham.ged.yaml.RowType;
+import com.arkham.ged.yaml.TabType;
+
+/**
+ * Compile a {@link RootExcel} into an {@link ExecutionPlan}. Cells of a body are mostly the same from a row to another (same column, type
+ * and style) : their {@link CellShape} is computed once and shared, also between generations of the same YAML shape (see
+ * {@link CellShapeCache}). Identical values are compiled only once (see {@link ExprCache}). Transformers come from the
+ * {@link TransformerRegistry}, with the source form declared by the format of the cell style if any.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class ExecutionPlanCompiler {
+    private final Map<String, Integer> mStyleIds = new HashMap<>();
+    private final List<String> mStyles = new ArrayList<>();
+    private final Map<String, CompiledValue> mParts = new HashMap<>();
+    private final Map<CellShapeCache.Key, CellShape> mShapes = new HashMap<>();
+    private int mRowCount;
+    private boolean mMoving;
+    private boolean mCopying;
+
+    /**
+     * First row a copy can target, by tab id : the copy shifts the row if it exists in the model
+     */
+    private final Map<String, Integer> mCopyStarts = new HashMap<>();
+
+    private final boolean mIncremental;
+    private final ExprCache mExprCache;
+    private final CellShapeCache mShapeCache;
+
+    /**
+     * Formats declaring the form of their source values, by style name
+     */
+    private final Map<String, FormatType> mSources = new HashMap<>();
+
+    private ExecutionPlanCompiler(final RootExcel re, final boolean incremental, final ExprCache exprCache, final CellShapeCache shapeCache) {
+        mIncremental = incremental;
+        mExprCache = exprCache;
+        mShapeCache = shapeCache;
+
+        if (re.getFormat() != null && re.getStyle() != null) {
+            final var formats = new HashMap<String, FormatType>();
+            for (final FormatType ft : re.getFormat()) {
+                if (ft.getSource() != null || ft.getLocale() != null) {
+                    formats.put(ft.getName(), ft);
+                }
+            }
+
+            for (final var st : re.getStyle()) {
+                final var ft = st.getFormat() == null ? null : formats.get(st.getFormat());
+                if (ft != null) {
+                    mSources.put(st.getName(), ft);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param re The YAML root
+     * @param exprCache The shared cache of the compiled values
+     * @param shapeCache The shared cache of the cell shapes
+     * @return The plan of this YAML
+     */
+    public static ExecutionPlan compile(final RootExcel re, final ExprCache exprCache, final CellShapeCache shapeCache) {
+        final var epc = new ExecutionPlanCompiler(re, false, exprCache, shapeCache);
+
+        final var tabs = re.getTab();
+        final var bodies = new CompiledRow[tabs.size()][];
+        for (var i = 0; i < bodies.length; i++) {
+            bodies[i] = epc.compile(tabs.get(i));
+        }
+
+        return new ExecutionPlan(bodies, epc.mStyles, epc.mRowCount, epc.mMoving, epc.mCopyStarts);
+    }
+
+    /**
+     * Compiler for rows read one at a time (streaming) : nothing is kept per row, the style table of {@link #getPlan()} grows with the rows
+     *
+     * @param re The YAML root (head), for the formats of the styles
+     * @param exprCache The shared cache of the compiled values
+     * @param shapeCache The shared cache of the cell shapes
+     * @return A new compiler
+     */
+    public static ExecutionPlanCompiler incremental(final RootExcel re, final ExprCache exprCache, final CellShapeCache shapeCache) {
+        return new ExecutionPlanCompiler(re, true, exprCache, shapeCache);
+    }
+
+    /**
+     * @param rt The YAML row
+     * @return The compiled row
+     */
+    public CompiledRow compileRow(final RowType rt) {
+        return compile(rt);
+    }
+
+    /**
+     * @return The plan of an incremental compiler, without bodies
+     */
+    public ExecutionPlan getPlan() {
+        return new ExecutionPlan(new CompiledRow[0][], mStyles, mRowCount, mMoving, mCopyStarts);
+    }
+
+    private CompiledRow[] compile(final TabType tab) {
+        final var bt = tab.getBody();
+        if (bt == null) {
+            return null; // NOSONAR see ExecutionPlan.getBody()
+        }
+
+        mCopying = false;
+        final var rows = bt.getRow();
+        final var result = new CompiledRow[rows.size()];
+        for (var i = 0; i < result.length; i++) {
+            result[i] = compile(rows.get(i));
+        }
+
+        if (mCopying) {
+            // Un header dans la zone du body serait décalé par la copie
+            mMoving |= hasHeaderFrom(tab, bt.getIndex());
+            mCopyStarts.merge(tab.getId(), Integer.valueOf(bt.getIndex()), (a, b) -> a.intValue() <= b.intValue() ? a : b);
+        }
+
+        return result;
+    }
+
+    private CompiledRow compile(final RowType rt) {
+        mRowCount++;
+        switch (rt.getMode()) {
+            // Insertion ou retour en arrière : des rows déjà écrits seraient à décaler ou à modifier
+            case INSERTAT, INDEX, SOLVED, POP -> mMoving = true;
+            case COPYFROM, COPYFROMCURRENT -> mCopying = true;
+            default -> {
+                // Rows written in order
+            }
+        }
+
+        final var cells = rt.getCell();
+        final var result = new CompiledCell[cells.size()];
+        for (var i = 0; i < result.length; i++) {
+            final var ct = cells.get(i);
+            final var shape = getShape(ct);
+
+            result[i] = new CompiledCell(shape, getStyleId(shape.getStyle()), ct, getParts(shape.getType(), ct.getValue()));
+        }
+
+        return new CompiledRow(rt, result);
+    }
+
+    /**
+     * @param tab The YAML tab
+     * @param index The first row of the body
+     * @return true if a header cell is at or after this row
+     */
+    private static boolean hasHeaderFrom(final TabType tab, final int index) {
+        if (tab.getHeader() != null) {
+            for (final CellType ct : tab.getHeader().getCell()) {
+                if (new CellReference(ct.getRef()).getRow() >= index) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private CellShape getShape(final CellType ct) {
+        // Le même nom de style peut déclarer une autre source d'un YAML à l'autre
+        final var ft = ct.getStyle() == null ? null : mSources.get(ct.getStyle());
+        final var key = new CellShapeCache.Key(ct.getRef(), ct.getStyle(), ct.getType(), ft == null ? null : ft.getSource(), ft == null ? null : ft.getLocale());
+
+        if (mIncremental) {
+            return getShape(key, ct, ft);
+        }
+
+        // Local map first : avoid the lock of the shared cache for the cells repeated in the body
+        return mShapes.computeIfAbsent(key, k -> getShape(k, ct, ft));
+    }
+
+    private CellShape getShape(final CellShapeCache.Key key, final CellType ct, final FormatType ft) {
+        var shape = mShapeCache.get(key);
+        if (shape == null) {
+            // Décodage pour récupérer la référence de colonne, le numéro de ligne étant dynamique en fait.
+            // Du coup le formalisme "C8" n'utilise que "C" par exemple
+            final var cr = new CellReference(ct.getRef());
+            shape = new CellShape(cr.getCol(), ct.getType(), getTransformer(ct.getType(), ft), ct.getStyle());
+            mShapeCache.put(key, shape);
+        }
+
+        return shape;
+    }
+
+    private static ITransformer getTransformer(final CellValueType type, final FormatType ft) {
+        if (ft == null) {
+            return TransformerRegistry.get(type);
+        }
+
+        return TransformerRegistry.get(type, ft.getSource(), ft.getLocale());
+    }
+
+    private int getStyleId(final String style) {
+        if (style == null) {
+            return -1;
+        }
+
+        return mStyleIds.computeIfAbsent(style, s -> {
+            mStyles.add(s);
+            return Integer.valueOf(mStyles.size() - 1);
+        }).intValue();
+    }
+
+    private CompiledValue getParts(final CellValueType type, final String value) {
+        if (type != CellValueType.STRING && type != CellValueType.FORMULA || !ExprCache.hasExpr(value)) {
+            return null; // NOSONAR null means literal value
+        }
+
+        if (mIncremental) {
+            return mExprCache.compile(value);
+        }
+
+        // Local map first : avoid the lock of the shared cache for the values repeated in the YAML
+        return mParts.computeIfAbsent(value, mExprCache::compile);
+    }
+}
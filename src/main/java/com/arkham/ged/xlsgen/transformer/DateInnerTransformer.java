@@ -32,4 +32,23 @@ public class DateInnerTransformer extends DateTransformer {
     protected DateTimeFormatter getSourceFormatter() {
         return SRC_FORMATTER;
     }
+
+    /**
+     * Format "yyyyMMdd", 8 digits
+     * {@inheritDoc}
+     *
+     * @see com.arkham.ged.xlsgen.transformer.DateTransformer#parse(java.lang.String)
+     */
+    @Override
+    protected int parse(final String value) {
+        if (value.length() != 8) {
+            return -1;
+        }
+
+        final var y = digits(value, 0, 4);
+        final var m = digits(value, 4, 2);
+        final var d = digits(value, 6, 2);
+
+        return y < 0 || m < 0 || d < 0 ? -1 : y * 10_000 + m * 100 + d;
+    }
 }
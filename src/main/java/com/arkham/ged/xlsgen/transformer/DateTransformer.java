@@ -13,12 +13,16 @@ package com.arkham.ged.xlsgen.transformer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Date;
+
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Transformation d'une date au format "d/M/yyyy" vers le format habituel attendu par POI ("yyyy/MM/dd")
+ * <br/>
+ * Immutable : une instance est partagée entre les threads (voir {@link TransformerRegistry}).
  *
  * @author arocher / Arkham asylum
  * @version 1.0
@@ -30,6 +34,33 @@ public class DateTransformer implements ITransformer<String> {
     private static final DateTimeFormatter SRC_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy");
     private static final DateTimeFormatter POI_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
 
+    /**
+     * Days between 0000-01-01 and 1970-01-01 (see LocalDate)
+     */
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    /**
+     * Excel serial numbers of 1970-01-01, in 1900 and 1904 date systems
+     */
+    private static final long EPOCH_1900 = 25_569L;
+    private static final long EPOCH_1904 = 24_107L;
+
+    private final DateTimeFormatter mSource;
+
+    /**
+     * Dates au format "d/M/yyyy"
+     */
+    public DateTransformer() {
+        this(SRC_FORMATTER);
+    }
+
+    /**
+     * @param source Le format d'entrée, par exemple un pattern déclaré dans le YAML
+     */
+    public DateTransformer(final DateTimeFormatter source) {
+        mSource = source;
+    }
+
     @Override
     public Object transform(final String value) {
         if (value == null) {
@@ -51,13 +82,127 @@ public class DateTransformer implements ITransformer<String> {
         return "";
     }
 
+    /**
+     * Convert a date straight to its Excel serial number, without allocation for the usual form (see {@link #parse(String)}). Other forms
+     * are parsed by the source formatter, dates before 1904 go through {@link #transform(String)}.
+     *
+     * @param value The date, not null
+     * @param date1904 true if the workbook uses the 1904 date system
+     * @return The serial number, NaN if the value is not a date
+     */
+    public double toSerial(final String value, final boolean date1904) {
+        final var ymd = parse(value);
+        if (ymd >= 0) {
+            final var y = ymd / 10_000;
+            final var m = ymd / 100 % 100;
+            final var d = ymd % 100;
+
+            // Jour hors du mois : le formatter le ramène au dernier jour, on le laisse faire
+            if (y >= 1904 && m >= 1 && m <= 12 && d >= 1 && d <= lengthOfMonth(y, m)) {
+                return toEpochDay(y, m, d) + (date1904 ? EPOCH_1904 : EPOCH_1900);
+            }
+        }
+
+        // Autre forme : le formatter compilé suffit, sans repasser par une chaîne et une Date
+        final LocalDate parsedDate;
+        try {
+            parsedDate = LocalDate.parse(value, getSourceFormatter());
+        } catch (@SuppressWarnings("unused") final DateTimeParseException e) { // NOSONAR
+            LOG.error("toSerial() : unable to convert date format, value=\"{}\"", value);
+            return Double.NaN;
+        }
+
+        if (parsedDate.getYear() >= 1904) {
+            return parsedDate.toEpochDay() + (date1904 ? EPOCH_1904 : EPOCH_1900);
+        }
+
+        final var o = transform(value);
+
+        return o instanceof Date date ? DateUtil.getExcelDate(date, date1904) : Double.NaN;
+    }
+
+    /**
+     * Parse the usual form of the date, "d/M/yyyy" here. A surcharger avec {@link #getSourceFormatter()}.
+     *
+     * @param value The date
+     * @return yyyyMMdd as an int, -1 if the value is not exactly in the usual form
+     */
+    protected int parse(final String value) {
+        if (getSourceFormatter() != SRC_FORMATTER) {
+            // Format surchargé sans parser dédié
+            return -1;
+        }
+
+        final var n = value.length();
+
+        // 1 or 2 digits, '/', 1 or 2 digits, '/', 4 digits
+        final var s1 = value.indexOf('/');
+        final var s2 = s1 < 0 ? -1 : value.indexOf('/', s1 + 1);
+        if (s1 < 1 || s1 > 2 || s2 - s1 < 2 || s2 - s1 > 3 || n - s2 != 5) {
+            return -1;
+        }
+
+        final var d = digits(value, 0, s1);
+        final var m = digits(value, s1 + 1, s2 - s1 - 1);
+        final var y = digits(value, s2 + 1, 4);
+
+        return d < 0 || m < 0 || y < 0 ? -1 : y * 10_000 + m * 100 + d;
+    }
+
+    /**
+     * @param value The text
+     * @param from The index of the first digit
+     * @param count The number of digits
+     * @return The number, -1 if a character is not a digit
+     */
+    protected static int digits(final String value, final int from, final int count) {
+        var result = 0;
+        for (var i = from; i < from + count; i++) {
+            final var c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + c - '0';
+        }
+
+        return result;
+    }
+
+    private static int lengthOfMonth(final int y, final int m) {
+        return switch (m) {
+            case 2 -> isLeap(y) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeap(final int y) {
+        return (y & 3) == 0 && (y % 100 != 0 || y % 400 == 0);
+    }
+
+    /**
+     * Same as {@link LocalDate#toEpochDay()}, for positive years
+     */
+    private static long toEpochDay(final int y, final int m, final int d) {
+        var total = 365L * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * m - 362) / 12;
+        total += d - 1;
+        if (m > 2) {
+            total--;
+            if (!isLeap(y)) {
+                total--;
+            }
+        }
+
+        return total - DAYS_0000_TO_1970;
+    }
+
     /**
      * Méthode surchargeable afin de spécifier le format date en entrée
      *
      * @return Le transformer de date au format d'entrée
      */
-    @SuppressWarnings("static-method")
     protected DateTimeFormatter getSourceFormatter() {
-        return SRC_FORMATTER;
+        return mSource;
     }
 }
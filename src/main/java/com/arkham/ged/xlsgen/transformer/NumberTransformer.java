@@ -10,32 +10,163 @@
  */
 package com.arkham.ged.xlsgen.transformer;
 
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
 /**
  * Transformation d'une chaîne de caractère "numérique" en vraie valeur numérique, type Double.class
  * <br/>
  * Une valeur <code>null</code> en entrée ou une valeur non numérique renvoie systématiquement la valeur 0,
  * dans tous les cas cela signifie qu'on a pas de donnée en entrée ou alors que le type spécifié n'est pas le bon.
+ * <br/>
+ * Immutable : une instance est partagée entre les threads (voir {@link TransformerRegistry}).
  *
  * @author arocher / Arkham asylum
  * @version 1.0
  * @since 19 juil. 2018
  */
 public class NumberTransformer implements ITransformer<String> {
+    /**
+     * Above, a long mantissa is no more exact as a double
+     */
+    private static final long MAX_EXACT = 1L << 53;
+
+    /**
+     * Powers of ten exactly represented as double
+     */
+    private static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final NumberTransformer DEFAULT = new NumberTransformer();
+
+    private final char mDecimal;
+    private final char mGrouping;
+    private final boolean mSpaceGrouping;
+    private final boolean mLocalized;
+
+    /**
+     * Values in the JDK form ("-1234.56"), without grouping
+     */
+    public NumberTransformer() {
+        mDecimal = '.';
+        mGrouping = 0;
+        mSpaceGrouping = false;
+        mLocalized = false;
+    }
+
+    /**
+     * Values written with the separators of a locale, for example "1 234,56" for fr-FR. A space-like grouping separator also accepts the
+     * plain space and the no-break spaces, because nobody types U+202F in a spool.
+     *
+     * @param locale The locale of the values
+     */
+    public NumberTransformer(final Locale locale) {
+        final var dfs = DecimalFormatSymbols.getInstance(locale);
+        mDecimal = dfs.getDecimalSeparator();
+        mGrouping = dfs.getGroupingSeparator();
+        mSpaceGrouping = Character.isSpaceChar(mGrouping);
+        mLocalized = true;
+    }
+
     @Override
     public Object transform(final String value) {
         if (value == null) {
             return 0.0d;
         }
 
-        final var s = value.trim();
-        if (s.length() > 0) {
-            try {
-                return Double.valueOf(s);
-            } catch (@SuppressWarnings("unused") final NumberFormatException e) { // NOSONAR
-                // Will return default value
+        return Double.valueOf(toDouble(value));
+    }
+
+    /**
+     * Parse without allocation the usual forms ("-12", "3.14"), same result than {@link Double#parseDouble(String)}
+     *
+     * @param value The value, not null
+     * @return The value as double, 0 if not numeric
+     * @see #toDouble(String)
+     */
+    public static double parse(final String value) {
+        return DEFAULT.toDouble(value);
+    }
+
+    /**
+     * Parse without allocation the usual forms ("-12", "3.14" or with the separators of the locale) : an exact mantissa divided by an exact
+     * power of ten is correctly rounded. Other forms (exponent, too many digits, ...) are parsed by the JDK.
+     *
+     * @param value The value, not null
+     * @return The value as double, 0 if not numeric
+     */
+    public double toDouble(final String value) {
+        var i = 0;
+        var n = value.length();
+        while (i < n && value.charAt(i) <= ' ') {
+            i++;
+        }
+        while (n > i && value.charAt(n - 1) <= ' ') {
+            n--;
+        }
+
+        var negative = false;
+        if (i < n && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            negative = value.charAt(i) == '-';
+            i++;
+        }
+
+        var mantissa = 0L;
+        var digits = 0;
+        var scale = -1;
+        for (; i < n; i++) {
+            final var c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + c - '0';
+                digits++;
+                if (mantissa >= MAX_EXACT) {
+                    return parseDefault(value);
+                }
+            } else if (c == mDecimal && scale < 0) {
+                scale = digits;
+            } else if (!isGrouping(c) || scale >= 0) {
+                return parseDefault(value);
             }
         }
 
+        final var decimals = scale < 0 ? 0 : digits - scale;
+        if (digits == 0 || decimals >= POW10.length) {
+            return parseDefault(value);
+        }
+
+        final var result = mantissa / POW10[decimals];
+
+        return negative ? -result : result;
+    }
+
+    private boolean isGrouping(final char c) {
+        return mLocalized && (c == mGrouping || mSpaceGrouping && (c == ' ' || c == '\u00a0' || c == '\u202f'));
+    }
+
+    private double parseDefault(final String value) {
+        try {
+            return Double.parseDouble(mLocalized ? normalize(value) : value);
+        } catch (@SuppressWarnings("unused") final NumberFormatException e) { // NOSONAR
+            // Will return default value
+        }
+
         return 0.0d;
     }
+
+    /**
+     * @param value The localized value
+     * @return The value in the JDK form : without grouping, with '.' as decimal separator
+     */
+    private String normalize(final String value) {
+        final var sb = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == mDecimal) {
+                sb.append('.');
+            } else if (!isGrouping(c)) {
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
 }
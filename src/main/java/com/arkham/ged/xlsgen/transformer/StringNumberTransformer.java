@@ -10,26 +10,35 @@
  */
 package com.arkham.ged.xlsgen.transformer;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.math.BigDecimal;
 
 /**
  * Excel s'amuse tout seul à changer les formats, par exemple même dans une cellule texte 150 peut être transformé en 150.0 ... ce transformer
  * permet donc de reformater correctement (String -> String) pour des valeurs numériques.
+ * <br/>
+ * Sans DecimalFormat partagé (pas thread-safe) : arrondi au plus proche pair comme le pattern "0", sans séparateur de milliers.
  *
  * @author arocher / Arkham asylum
  * @version 1.0
  * @since 7 déc. 2016
  */
 public class StringNumberTransformer implements ITransformer<String> {
-    private static final Locale US = new Locale("en", "US");
-
-    private static final NumberFormat NUM_FORMAT = new DecimalFormat("0", new DecimalFormatSymbols(US));
+    /**
+     * Below, all the digits of the double are significant : above, DecimalFormat prints the shortest digits padded with zeros
+     */
+    private static final double MAX_EXACT = 1L << 53;
 
     @Override
-    public Object transform(String value) {
-        return NUM_FORMAT.format(value);
+    public Object transform(final String value) {
+        if (value == null) {
+            return "";
+        }
+
+        final var d = Math.rint(NumberTransformer.parse(value));
+        if (Math.abs(d) < MAX_EXACT) {
+            return Long.toString((long) d);
+        }
+
+        return Double.isFinite(d) ? BigDecimal.valueOf(d).toPlainString() : Double.toString(d);
     }
 }
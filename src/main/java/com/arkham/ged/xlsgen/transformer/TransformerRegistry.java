@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.transformer;
+
+import java.time.format.DateTimeFormatter;
+import java.util.IllformedLocaleException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.yaml.CellValueType;
+
+/**
+ * Transformers shared by the whole JVM, keyed by name. They are immutable, so the same instance is used by every generation and every
+ * thread. Besides the built-in ones (one per cell type), a YAML format may declare the form of its source values (<code>source</code> and
+ * <code>locale</code>) : the transformer is compiled the first time, then reused.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class TransformerRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TransformerRegistry.class);
+
+    /**
+     * YAML-declared transformers kept, bounded : beyond that they are still compiled but not kept
+     */
+    private static final int MAX_COMPILED = 256;
+
+    private static final Map<String, ITransformer<String>> NAMED = new ConcurrentHashMap<>();
+    private static final Map<String, ITransformer<String>> COMPILED = new ConcurrentHashMap<>();
+
+    static {
+        register(CellValueType.NUMERIC.name(), new NumberTransformer());
+        register(CellValueType.DATE.name(), new DateTransformer());
+        register(CellValueType.DATEZN.name(), new DateZnTransformer());
+        register(CellValueType.DATEINNER.name(), new DateInnerTransformer());
+        register("STRINGNUMBER", new StringNumberTransformer());
+    }
+
+    private TransformerRegistry() {
+        // Utility class
+    }
+
+    /**
+     * Register a transformer, it replaces the one of the same name. It must be immutable (or thread-safe). A replacement for a cell type
+     * that is not a {@link NumberTransformer} (NUMERIC) or a {@link DateTransformer} (dates) is called through
+     * {@link ITransformer#transform(Object)}, without the primitive write path.
+     *
+     * @param name The name
+     * @param transformer The transformer
+     */
+    public static void register(final String name, final ITransformer<String> transformer) {
+        NAMED.put(name, transformer);
+    }
+
+    /**
+     * @param name The name
+     * @return The transformer, null if not registered
+     */
+    public static ITransformer<String> get(final String name) {
+        return NAMED.get(name);
+    }
+
+    /**
+     * @param type The cell type
+     * @return The built-in transformer of the type, null if the type has none
+     */
+    public static ITransformer<String> get(final CellValueType type) {
+        return switch (type) {
+            case NUMERIC, DATE, DATEZN, DATEINNER -> NAMED.get(type.name());
+            default -> null;
+        };
+    }
+
+    /**
+     * Transformer of the values declared by a YAML format : a date pattern ("dd.MM.yyyy") for the date types, a locale ("fr-FR") for
+     * NUMERIC. Compiled once per JVM.
+     *
+     * @param type The cell type
+     * @param source The pattern of the values, may be null
+     * @param locale The locale of the values (BCP 47 tag), may be null
+     * @return The transformer, the built-in one of the type if the format declares nothing usable for it
+     */
+    public static ITransformer<String> get(final CellValueType type, final String source, final String locale) {
+        final var numeric = type == CellValueType.NUMERIC;
+        final var date = type == CellValueType.DATE || type == CellValueType.DATEZN || type == CellValueType.DATEINNER;
+        if (numeric && locale == null || date && source == null || !numeric && !date) {
+            return get(type);
+        }
+
+        // Tous les types date partagent le même transformer pour un même pattern
+        final var key = (numeric ? "N\u0001" : "D\u0001" + source) + '\u0001' + locale;
+
+        final var result = COMPILED.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        // Compilé une seule fois par clé ; au-delà de la borne (approximative), compilé sans être gardé
+        if (COMPILED.size() < MAX_COMPILED) {
+            return COMPILED.computeIfAbsent(key, k -> compile(type, numeric, source, locale));
+        }
+
+        return compile(type, numeric, source, locale);
+    }
+
+    private static ITransformer<String> compile(final CellValueType type, final boolean numeric, final String source, final String tag) {
+        final Locale locale;
+        try {
+            locale = tag == null ? Locale.ROOT : new Locale.Builder().setLanguageTag(tag).build();
+        } catch (final IllformedLocaleException e) {
+            LOG.warn("compile() : invalid locale \"{}\", built-in transformer used : {}", tag, e.getMessage());
+            return get(type);
+        }
+
+        if (numeric) {
+            return new NumberTransformer(locale);
+        }
+
+        try {
+            return new DateTransformer(DateTimeFormatter.ofPattern(source, locale));
+        } catch (final IllegalArgumentException e) {
+            LOG.warn("compile() : invalid date pattern \"{}\", built-in transformer used : {}", source, e.getMessage());
+            return get(type);
+        }
+    }
+}
@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.AlignmentType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.AlignmentType;
  * @since 13 févr. 2020
  */
 public class AlignmentTypeDeserializer extends AbstractTypeDeserializer<AlignmentType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(AlignmentTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor AlignmentTypeDeserializer
      */
-    public AlignmentTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public AlignmentType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return AlignmentType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, AlignmentType.class, s);
-        }
-
-        return AlignmentType.GENERAL;
+    public AlignmentTypeDeserializer() {
+        super(AlignmentType.class, AlignmentType.GENERAL);
     }
 }
@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.BorderStyleType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.BorderStyleType;
  * @since 13 févr. 2020
  */
 public class BorderStyleTypeDeserializer extends AbstractTypeDeserializer<BorderStyleType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(BorderStyleTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor BorderStyleTypeDeserializer
      */
-    public BorderStyleTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public BorderStyleType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return BorderStyleType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, BorderStyleType.class, s);
-        }
-
-        return BorderStyleType.NONE;
+    public BorderStyleTypeDeserializer() {
+        super(BorderStyleType.class, BorderStyleType.NONE);
     }
 }
@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.CellValueType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.CellValueType;
  * @since 13 févr. 2020
  */
 public class CellValueTypeDeserializer extends AbstractTypeDeserializer<CellValueType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(CellValueTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor CellValueTypeDeserializer
      */
-    public CellValueTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public CellValueType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return CellValueType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, CellValueType.class, s);
-        }
-
-        return CellValueType.STRING;
+    public CellValueTypeDeserializer() {
+        super(CellValueType.class, CellValueType.STRING);
     }
 }
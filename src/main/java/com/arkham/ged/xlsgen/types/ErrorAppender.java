@@ -13,11 +13,13 @@ package com.arkham.ged.xlsgen.types;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.databind.DeserializationContext;
+
 import com.arkham.ged.solver.SlfTranslator;
 import com.arkham.ged.solver.Translator;
 
 /**
- * Hold a list of warning/errors
+ * Hold a list of warning/errors. One per generation, given to the shared deserializers as attribute of the reader.
  *
  * @author arocher / Arkham asylum
  * @version 1.0
@@ -47,6 +49,14 @@ public class ErrorAppender {
         add(mTranslator.translate(message, p));
     }
 
+    /**
+     * @param ctxt The context of the current deserialization
+     * @return The appender of the generation, null if the reader has none
+     */
+    public static ErrorAppender of(DeserializationContext ctxt) {
+        return (ErrorAppender) ctxt.getAttribute(ErrorAppender.class);
+    }
+
     /**
      * @return The list of issues
      */
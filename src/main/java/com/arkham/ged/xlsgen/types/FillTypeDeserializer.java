@@ -21,11 +21,9 @@ import com.arkham.ged.yaml.FillType;
  */
 public class FillTypeDeserializer extends AbstractTypeDeserializer<FillType> {
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor FillTypeDeserializer
      */
-    public FillTypeDeserializer(ErrorAppender ea) {
-        super(ea);
+    public FillTypeDeserializer() {
+        super(FillType.class, FillType.NO_FILL);
     }
 }
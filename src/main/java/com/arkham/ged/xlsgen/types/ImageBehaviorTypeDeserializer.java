@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.ImageBehaviorType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.ImageBehaviorType;
  * @since 13 févr. 2020
  */
 public class ImageBehaviorTypeDeserializer extends AbstractTypeDeserializer<ImageBehaviorType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ImageBehaviorTypeDeserializer.class);
-
     /**
      * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
      */
-    public ImageBehaviorTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public ImageBehaviorType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return ImageBehaviorType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, ImageBehaviorType.class, s);
-        }
-
-        return ImageBehaviorType.INCELL;
+    public ImageBehaviorTypeDeserializer() {
+        super(ImageBehaviorType.class, ImageBehaviorType.INCELL);
     }
 }
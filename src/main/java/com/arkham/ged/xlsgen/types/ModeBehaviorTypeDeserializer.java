@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.ModeBehaviorType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.ModeBehaviorType;
  * @since 13 févr. 2020
  */
 public class ModeBehaviorTypeDeserializer extends AbstractTypeDeserializer<ModeBehaviorType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ModeBehaviorTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor ModeBehaviorTypeDeserializer
      */
-    public ModeBehaviorTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public ModeBehaviorType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return ModeBehaviorType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, ModeBehaviorType.class, s);
-        }
-
-        return ModeBehaviorType.REPORT;
+    public ModeBehaviorTypeDeserializer() {
+        super(ModeBehaviorType.class, ModeBehaviorType.REPORT);
     }
 }
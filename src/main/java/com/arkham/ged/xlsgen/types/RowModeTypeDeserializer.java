@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.RowModeType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.RowModeType;
  * @since 13 févr. 2020
  */
 public class RowModeTypeDeserializer extends AbstractTypeDeserializer<RowModeType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(RowModeTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor RowModeTypeDeserializer
      */
-    public RowModeTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public RowModeType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return RowModeType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, RowModeType.class, s);
-        }
-
-        return RowModeType.CURRENT;
+    public RowModeTypeDeserializer() {
+        super(RowModeType.class, RowModeType.CURRENT);
     }
 }
@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.UnderlineType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.UnderlineType;
  * @since 13 févr. 2020
  */
 public class UnderlineTypeDeserializer extends AbstractTypeDeserializer<UnderlineType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(UnderlineTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor UnderlineTypeDeserializer
      */
-    public UnderlineTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public UnderlineType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return UnderlineType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, UnderlineType.class, s);
-        }
-
-        return UnderlineType.U_NONE;
+    public UnderlineTypeDeserializer() {
+        super(UnderlineType.class, UnderlineType.U_NONE);
     }
 }
@@ -10,14 +10,6 @@
  */
 package com.arkham.ged.xlsgen.types;
 
-import java.io.IOException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-
 import com.arkham.ged.yaml.VerticalAlignmentType;
 
 /**
@@ -28,27 +20,10 @@ import com.arkham.ged.yaml.VerticalAlignmentType;
  * @since 13 févr. 2020
  */
 public class VerticalAlignmentTypeDeserializer extends AbstractTypeDeserializer<VerticalAlignmentType> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(VerticalAlignmentTypeDeserializer.class);
-
     /**
-     * Constructor ImageBehaviorTypeDeserializer
-     *
-     * @param ea Appender for errors
+     * Constructor VerticalAlignmentTypeDeserializer
      */
-    public VerticalAlignmentTypeDeserializer(final ErrorAppender ea) {
-        super(ea);
-    }
-
-    @Override
-    public VerticalAlignmentType deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
-        final var s = p.getText();
-
-        try {
-            return VerticalAlignmentType.valueOf(s.toUpperCase());
-        } catch (@SuppressWarnings("unused") final IllegalArgumentException e) { // NOSONAR
-            addError(LOGGER, p, VerticalAlignmentType.class, s);
-        }
-
-        return VerticalAlignmentType.TOP;
+    public VerticalAlignmentTypeDeserializer() {
+        super(VerticalAlignmentType.class, VerticalAlignmentType.TOP);
     }
 }
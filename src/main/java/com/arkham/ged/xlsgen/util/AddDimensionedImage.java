@@ -16,7 +16,6 @@
  */
 package com.arkham.ged.xlsgen.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -27,7 +26,6 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellReference;
 
-import com.arkham.common.util.GxUtil;
 import com.arkham.ged.yaml.ImageBehaviorType;
 
 /**
@@ -146,6 +144,7 @@ public class AddDimensionedImage {
     // public static final int OVERLAY_ROW_AND_COLUMN = 7;
 
     private final Sheet mSheet;
+    private final PictureRegistry mPictures;
 
     /**
      * Constructor AddDimensionedImage
@@ -153,7 +152,18 @@ public class AddDimensionedImage {
      * @param sheet The worksheet
      */
     public AddDimensionedImage(final Sheet sheet) {
+        this(sheet, new PictureRegistry(sheet.getWorkbook()));
+    }
+
+    /**
+     * Constructor AddDimensionedImage
+     *
+     * @param sheet The worksheet
+     * @param pictures The pictures of the workbook, shared between images
+     */
+    public AddDimensionedImage(final Sheet sheet, final PictureRegistry pictures) {
         mSheet = sheet;
+        mPictures = pictures;
     }
 
     /**
@@ -280,16 +290,12 @@ public class AddDimensionedImage {
         // however.
         // int index = sheet.getWorkbook().addPicture(this.imageToBytes(imageFile),
         // HSSFWorkbook.PICTURE_TYPE_JPEG);
-        try (var os = new ByteArrayOutputStream()) {
-            GxUtil.copyIs2Os(imageFile, os);
+        // Same image at the same size : same picture
+        final var index = mPictures.addPicture(imageFile, imageFormat, reqImageWidthMM, reqImageHeightMM);
 
-            @SuppressWarnings("resource")
-            final var index = mSheet.getWorkbook().addPicture(os.toByteArray(), imageFormat);
-
-            // Get the drawing patriarch and create the picture.
-            final Drawing<?> patriarch = mSheet.createDrawingPatriarch();
-            patriarch.createPicture(anchor, index);
-        }
+        // Get the drawing patriarch and create the picture.
+        final Drawing<?> patriarch = mSheet.createDrawingPatriarch();
+        patriarch.createPicture(anchor, index);
     }
 
     /**
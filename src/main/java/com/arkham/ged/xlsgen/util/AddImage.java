@@ -10,7 +10,6 @@
  */
 package com.arkham.ged.xlsgen.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -18,7 +17,6 @@ import org.apache.poi.ss.usermodel.Drawing;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellReference;
 
-import com.arkham.ged.util.GedUtil;
 import com.arkham.ged.yaml.ImageBehaviorType;
 
 /**
@@ -28,6 +26,7 @@ import com.arkham.ged.yaml.ImageBehaviorType;
  */
 public class AddImage {
     private final Sheet mSheet;
+    private final PictureRegistry mPictures;
 
     /**
      * Constructor AddImage
@@ -35,18 +34,25 @@ public class AddImage {
      * @param sheet
      */
     public AddImage(final Sheet sheet) {
+        this(sheet, new PictureRegistry(sheet.getWorkbook()));
+    }
+
+    /**
+     * Constructor AddImage
+     *
+     * @param sheet The worksheet
+     * @param pictures The pictures of the workbook, shared between images
+     */
+    public AddImage(final Sheet sheet, final PictureRegistry pictures) {
         mSheet = sheet;
+        mPictures = pictures;
     }
 
     public void addImageToSheet(final CellReference cr, final InputStream imageFile, final double w, final double h, final ImageBehaviorType resizeBehaviour, final int imageFormat) throws IOException {
-        final var baos = new ByteArrayOutputStream();
-        GedUtil.copyIs2Os(imageFile, baos, 8192);
-        final var b = baos.toByteArray();
-
         @SuppressWarnings("resource")
         final var wb = mSheet.getWorkbook();
         final var helper = wb.getCreationHelper();
-        final var pictureIdx = wb.addPicture(b, imageFormat);
+        final var pictureIdx = mPictures.addPicture(imageFile, imageFormat);
         final var anchor = helper.createClientAnchor();
         anchor.setCol1(cr.getCol());
         anchor.setRow1(cr.getRow());
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import java.awt.font.FontRenderContext;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Column widths estimated from tables of character widths, instead of {@link Sheet#autoSizeColumn(int)} that lays out the text of each
+ * cell with AWT. A table is computed once per font (name, size, bold, italic) and shared by all generations. Above
+ * <code>yeti.adjustment.sample</code> rows, only a sample of the rows is measured.<br>
+ * Estimation only : kerning and ligatures are ignored, characters beyond Latin-1 are measured as a wide one.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+@ApplicationScoped
+public class ColumnWidthEstimator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnWidthEstimator.class);
+
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+    private static final Map<String, float[]> FONTS = new ConcurrentHashMap<>();
+
+    /**
+     * Rows always measured : the header of the model is usually there
+     */
+    private static final int HEAD = 100;
+
+    /**
+     * Excel limit, in 1/256th of character
+     */
+    private static final int MAX_WIDTH = 255 * 256;
+
+    @ConfigProperty(name = "yeti.adjustment.sample", defaultValue = "1000")
+    int mSample;
+
+    @PostConstruct
+    void init() {
+        LOGGER.info("init() : fast adjustment measures {} rows at most", mSample);
+
+        // Beyond the head, at least one sampled row
+        mSample = Math.max(HEAD + 1, mSample);
+    }
+
+    /**
+     * Adjust the width of columns, in one pass on the rows of the sheet
+     *
+     * @param sheet The sheet
+     * @param columns The 0 based indexes of the columns
+     */
+    public void autoSize(final Sheet sheet, final BitSet columns) {
+        if (columns.isEmpty() || sheet.getPhysicalNumberOfRows() == 0) {
+            return;
+        }
+
+        final var wb = sheet.getWorkbook();
+        final var defaultWidth = getTable(wb.getFontAt(0))['0'];
+        final var skipped = getMergedCells(sheet, columns);
+        final var widths = new float[columns.length()];
+        final Map<Integer, float[]> tables = new HashMap<>();
+        final var formatter = new DataFormatter();
+
+        final var first = sheet.getFirstRowNum();
+        final var last = sheet.getLastRowNum();
+        final var rows = last - first + 1;
+        final var step = rows <= mSample ? 1 : (rows - HEAD + mSample - HEAD - 1) / (mSample - HEAD);
+
+        for (var i = first; i <= last; i += i < first + HEAD ? 1 : step) {
+            final var row = sheet.getRow(i);
+            if (row != null) {
+                measure(row, columns, skipped, widths, tables, formatter);
+            }
+        }
+
+        for (var col = columns.nextSetBit(0); col >= 0; col = columns.nextSetBit(col + 1)) {
+            if (widths[col] > 0) {
+                sheet.setColumnWidth(col, Math.min(MAX_WIDTH, Math.round(widths[col] / defaultWidth * 256)));
+            }
+        }
+
+        LOGGER.debug("autoSize() : {} column(s) of sheet {} adjusted on {} row(s), step {}", Integer.valueOf(columns.cardinality()), sheet.getSheetName(), Integer.valueOf(rows), Integer.valueOf(step));
+    }
+
+    private static void measure(final Row row, final BitSet columns, final Map<Integer, BitSet> skipped, final float[] widths, final Map<Integer, float[]> tables, final DataFormatter formatter) {
+        final var wb = row.getSheet().getWorkbook();
+
+        for (final Cell cell : row) {
+            final var col = cell.getColumnIndex();
+            if (!columns.get(col) || isSkipped(skipped, cell)) {
+                continue;
+            }
+
+            final var text = getText(cell, formatter);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+
+            final var fontIndex = cell.getCellStyle().getFontIndex();
+            final var table = tables.computeIfAbsent(Integer.valueOf(fontIndex), k -> getTable(wb.getFontAt(fontIndex)));
+
+            widths[col] = Math.max(widths[col], getWidth(text, table));
+        }
+    }
+
+    private static boolean isSkipped(final Map<Integer, BitSet> skipped, final Cell cell) {
+        final var rows = skipped.get(Integer.valueOf(cell.getColumnIndex()));
+
+        return rows != null && rows.get(cell.getRowIndex());
+    }
+
+    /**
+     * Cells merged over several columns do not give their width to a column (as POI)
+     */
+    private static Map<Integer, BitSet> getMergedCells(final Sheet sheet, final BitSet columns) {
+        final Map<Integer, BitSet> result = new HashMap<>();
+        for (final CellRangeAddress r : sheet.getMergedRegions()) {
+            if (r.getFirstColumn() == r.getLastColumn()) {
+                continue;
+            }
+
+            for (var col = columns.nextSetBit(r.getFirstColumn()); col >= 0 && col <= r.getLastColumn(); col = columns.nextSetBit(col + 1)) {
+                result.computeIfAbsent(Integer.valueOf(col), k -> new BitSet()).set(r.getFirstRow(), r.getLastRow() + 1);
+            }
+        }
+
+        return result;
+    }
+
+    private static String getText(final Cell cell, final DataFormatter formatter) {
+        return switch (cell.getCellType()) {
+            case STRING -> cell.getStringCellValue();
+            case NUMERIC, BOOLEAN -> formatter.formatCellValue(cell);
+            // Formulas are not evaluated while generating, nothing to measure
+            default -> null;
+        };
+    }
+
+    private static float getWidth(final String text, final float[] table) {
+        var result = 0f;
+        var line = 0f;
+        for (var i = 0; i < text.length(); i++) {
+            final var c = text.charAt(i);
+            if (c == '\n') {
+                result = Math.max(result, line);
+                line = 0;
+            } else {
+                line += c < table.length ? table[c] : table['W'];
+            }
+        }
+
+        return Math.max(result, line);
+    }
+
+    private static float[] getTable(final Font font) {
+        final var key = font.getFontName() + '\u0001' + font.getFontHeightInPoints() + '\u0001' + font.getBold() + '\u0001' + font.getItalic();
+
+        return FONTS.computeIfAbsent(key, k -> {
+            var style = font.getBold() ? java.awt.Font.BOLD : java.awt.Font.PLAIN;
+            if (font.getItalic()) {
+                style |= java.awt.Font.ITALIC;
+            }
+
+            final var awt = new java.awt.Font(font.getFontName(), style, font.getFontHeightInPoints());
+            final var table = new float[256];
+            for (var c = 0; c < table.length; c++) {
+                table[c] = (float) awt.getStringBounds(String.valueOf((char) c), FRC).getWidth();
+            }
+
+            LOGGER.info("getTable() : character widths computed for font {}", k.replace('\u0001', ' '));
+
+            return table;
+        });
+    }
+}
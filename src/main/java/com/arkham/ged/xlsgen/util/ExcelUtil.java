@@ -12,13 +12,7 @@ package com.arkham.ged.xlsgen.util;
 
 import java.util.Date;
 
-import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.SpreadsheetVersion;
-import org.apache.poi.ss.formula.FormulaParser;
-import org.apache.poi.ss.formula.FormulaRenderer;
-import org.apache.poi.ss.formula.FormulaType;
-import org.apache.poi.ss.formula.SharedFormula;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
@@ -26,7 +20,8 @@ import org.apache.poi.ss.usermodel.Drawing;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -231,20 +226,82 @@ public class ExcelUtil {
             return;
         }
 
-        final var sourceRow = worksheet.getRow(from);
+        final var regions = new MergedRegions(worksheet);
+        copyRow(new FormulaCopier(workbook), worksheet, from, worksheet, to, regions);
+        regions.validate();
+    }
+
+    /**
+     * Copies a row to another sheet view of the same worksheet : in streaming, the rows of the model are only reachable through the XSSF
+     * sheet while new rows are created through the SXSSF one.
+     *
+     * @param formulas The formula copier of the workbook
+     * @param source The sheet to read the row from
+     * @param from The index from
+     * @param worksheet The sheet to write the row to
+     * @param to The index to
+     * @param regions The merged regions of the worksheet
+     */
+    public static void copyRow(final FormulaCopier formulas, final Sheet source, final int from, final Sheet worksheet, final int to, final MergedRegions regions) {
+        var sourceRow = source.getRow(from);
         if (sourceRow == null) {
             LOGGER.error("copyRow() : source row at index {} does not exist", from);
             return;
         }
 
-        var newRow = worksheet.getRow(to);
-
-        if (alreadyExists(newRow)) {
+        if (alreadyExists(worksheet.getRow(to))) {
+            // The existing row moves down with the next ones, the copy goes to a new row
             worksheet.shiftRows(to, worksheet.getLastRowNum(), 1);
-        } else {
-            newRow = worksheet.createRow(to);
+            regions.invalidate();
+
+            if (source == worksheet && from >= to) {
+                // xls moves the cells, not the rows : the source is read again where it went
+                sourceRow = source.getRow(from + 1);
+            }
+        }
+
+        copyCells(formulas, sourceRow, worksheet.createRow(to), regions);
+    }
+
+    /**
+     * Copies a row of a body, indexes as if all insertions were applied. If the destination row is already occupied, a row is inserted
+     * through the shift log, the rows of the gap it reserves are never shifted again (xls keeps them as empty rows).
+     *
+     * @param formulas The formula copier of the workbook
+     * @param shifts The insertions of the body
+     * @param from The index from
+     * @param to The index to
+     * @param regions The merged regions of the worksheet
+     * @return true if a row has been inserted at the index to
+     */
+    public static boolean copyRow(final FormulaCopier formulas, final RowShiftLog shifts, final int from, final int to, final MergedRegions regions) {
+        if (shifts.getRow(from) == null) {
+            LOGGER.error("copyRow() : source row at index {} does not exist", from);
+            return false;
         }
 
+        // Copy over an existing row inserts it : the next rows are moved down, also the source if it was after
+        var source = from;
+        final var insert = alreadyExists(shifts.getRow(to));
+        if (insert) {
+            shifts.insert(to);
+            if (from >= to) {
+                source++;
+            }
+        }
+
+        // A region copied across the gap would not be moved with the rows when it is closed : closed before
+        if (shifts.crosses(to, regions.getHeight(shifts.toPhysical(source)))) {
+            shifts.flush();
+        }
+
+        final var sourceRow = shifts.getRow(source);
+        copyCells(formulas, sourceRow, shifts.getSheet().createRow(shifts.toPhysical(to)), regions);
+
+        return insert;
+    }
+
+    private static void copyCells(final FormulaCopier formulas, final Row sourceRow, final Row newRow, final MergedRegions regions) {
         for (var i = 0; i < sourceRow.getLastCellNum(); i++) {
             final var oldCell = sourceRow.getCell(i);
             final var newCell = newRow.createCell(i);
@@ -255,25 +312,16 @@ public class ExcelUtil {
                 newCell.setCellStyle(oldCell.getCellStyle());
                 copyCellComment(oldCell, newCell);
                 copyCellHyperlink(oldCell, newCell);
-                copyCellDataTypeAndValue(oldCell, newCell);
-                copyCellFormula(workbook, worksheet, oldCell, newCell);
+                if (oldCell.getCellType() == CellType.FORMULA) {
+                    // Relative references moved to the new row
+                    formulas.copy(oldCell, newCell);
+                } else {
+                    copyCellDataTypeAndValue(oldCell, newCell);
+                }
             }
         }
 
-        copyAnyMergedRegions(worksheet, sourceRow, newRow);
-    }
-
-    private static void copyCellFormula(final Workbook workbook, final Sheet sheet, final Cell sourceCell, final Cell targetCell) {
-        final var cellType = sourceCell.getCellType();
-        if (cellType == CellType.FORMULA && sourceCell.getCellFormula() != null) {
-            final var formulaParsingWorkbook = HSSFEvaluationWorkbook.create((HSSFWorkbook) workbook);
-            final var sharedFormula = new SharedFormula(SpreadsheetVersion.EXCEL2007);
-            final var sharedFormulaPtg = FormulaParser.parse(sourceCell.getCellFormula(), formulaParsingWorkbook, FormulaType.CELL, workbook.getSheetIndex(sheet));
-
-            final var shiftFormula = targetCell.getRowIndex() - sourceCell.getRowIndex();
-            final var convertedFormulaPtg = sharedFormula.convertSharedFormulas(sharedFormulaPtg, shiftFormula, 0);
-            targetCell.setCellFormula(FormulaRenderer.toFormulaString(formulaParsingWorkbook, convertedFormulaPtg));
-        }
+        regions.copy(sourceRow.getRowNum(), newRow.getRowNum());
     }
 
     private static void copyCellComment(final Cell oldCell, final Cell newCell) {
@@ -308,9 +356,6 @@ public class ExcelUtil {
             case ERROR:
                 newCell.setCellErrorValue(oldCell.getErrorCellValue());
                 break;
-            case FORMULA:
-                newCell.setCellFormula(oldCell.getCellFormula());
-                break;
             case NUMERIC:
                 newCell.setCellValue(oldCell.getNumericCellValue());
                 break;
@@ -326,19 +371,36 @@ public class ExcelUtil {
         return newRow != null;
     }
 
-    private static void copyAnyMergedRegions(final Sheet worksheet, final Row sourceRow, final Row newRow) {
-        for (var i = 0; i < worksheet.getNumMergedRegions(); i++) {
-            copyMergeRegion(worksheet, sourceRow, newRow, worksheet.getMergedRegion(i));
+    /**
+     * @param value The value
+     * @return true if null or only made of spaces (as {@link String#trim()}), without allocation
+     */
+    public static boolean isBlank(final String value) {
+        if (value != null) {
+            for (var i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > ' ') {
+                    return false;
+                }
+            }
         }
+
+        return true;
     }
 
-    private static void copyMergeRegion(final Sheet worksheet, final Row sourceRow, final Row newRow, final CellRangeAddress mergedRegion) {
-        final var range = mergedRegion;
-        if (range.getFirstRow() == sourceRow.getRowNum()) {
-            final var lastRow = newRow.getRowNum() + range.getLastRow() - range.getFirstRow();
-            final var newCellRangeAddress = new CellRangeAddress(newRow.getRowNum(), lastRow, range.getFirstColumn(), range.getLastColumn());
-            worksheet.addMergedRegion(newCellRangeAddress);
+    /**
+     * @param workbook The workbook
+     * @return true if the workbook uses the 1904 date system
+     */
+    public static boolean isDate1904(final Workbook workbook) {
+        if (workbook instanceof SXSSFWorkbook swb) {
+            return swb.getXSSFWorkbook().isDate1904();
+        } else if (workbook instanceof XSSFWorkbook xwb) {
+            return xwb.isDate1904();
+        } else if (workbook instanceof HSSFWorkbook hwb) {
+            return hwb.getInternalWorkbook().isUsing1904DateWindowing();
         }
+
+        return false;
     }
 
     /**
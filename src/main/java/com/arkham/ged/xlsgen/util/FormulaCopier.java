@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaParsingWorkbook;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaRenderingWorkbook;
+import org.apache.poi.ss.formula.FormulaShifter;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Copy formulas from a cell to another, relative references moved by the row offset (xls and xlsx). A formula is parsed once : the tokens
+ * are kept for the source cell and for each of its copies, so copying again a copy (COPYFROMCURRENT) does not parse anything.<br>
+ * POI cannot create shared formulas, each copy gets its own formula text, rendered from the tokens.<br>
+ * While a {@link RowShiftLog} keeps a gap of empty rows open, formulas are written with the indexes the rows will have once it is
+ * closed : their references are moved to the rows of the sheet, so that closing the gap moves them back.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class FormulaCopier {
+    private final Workbook mWorkbook;
+    private final FormulaParsingWorkbook mParsing;
+    private final FormulaRenderingWorkbook mRendering;
+    private final SharedFormula mShared;
+
+    /**
+     * Parsed formulas by cell (sheet, row, column)
+     */
+    private final Map<Long, Origin> mOrigins = new HashMap<>();
+
+    /**
+     * The sheet with a gap open, null if none
+     */
+    private Sheet mGapSheet;
+    private int mGap;
+    private int mFree;
+
+    /**
+     * The formula of a cell as parsed, at the row it was parsed for
+     */
+    private static final class Origin {
+        private final Ptg[] mPtgs;
+        private final int mRow;
+        private final String mText;
+
+        Origin(final Ptg[] ptgs, final int row, final String text) {
+            mPtgs = ptgs;
+            mRow = row;
+            mText = text;
+        }
+    }
+
+    /**
+     * Constructor FormulaCopier
+     *
+     * @param workbook The workbook
+     */
+    public FormulaCopier(final Workbook workbook) {
+        mWorkbook = workbook;
+        mShared = new SharedFormula(workbook.getSpreadsheetVersion());
+
+        if (workbook instanceof HSSFWorkbook hwb) {
+            final var ewb = HSSFEvaluationWorkbook.create(hwb);
+            mParsing = ewb;
+            mRendering = ewb;
+        } else {
+            // Streaming : same sheets than the model
+            final var xwb = workbook instanceof SXSSFWorkbook swb ? swb.getXSSFWorkbook() : (XSSFWorkbook) workbook;
+            final var ewb = XSSFEvaluationWorkbook.create(xwb);
+            mParsing = ewb;
+            mRendering = ewb;
+        }
+    }
+
+    /**
+     * Rows of a sheet moved down by a gap of empty rows, see {@link RowShiftLog}
+     *
+     * @param sheet The sheet
+     * @param gap The first row of the gap, 0 based
+     * @param free The number of empty rows of the gap, 0 once it is closed
+     */
+    public void setGap(final Sheet sheet, final int gap, final int free) {
+        mGapSheet = free > 0 ? sheet : null;
+        mGap = gap;
+        mFree = free;
+    }
+
+    /**
+     * Set the formula of a cell
+     *
+     * @param cell The cell
+     * @param formula The formula, references with the indexes of the rows once the gap is closed
+     */
+    public void write(final Cell cell, final String formula) {
+        if (cell.getSheet() != mGapSheet) {
+            cell.setCellFormula(formula);
+            return;
+        }
+
+        final var sheetIndex = mWorkbook.getSheetIndex(cell.getSheet().getSheetName());
+        final var ptgs = FormulaParser.parse(formula, mParsing, FormulaType.CELL, sheetIndex, cell.getRowIndex());
+        opening().adjustFormula(ptgs, getExternSheetIndex());
+        setFormula(cell, FormulaRenderer.toFormulaString(mRendering, ptgs));
+    }
+
+    /**
+     * Copy the formula of a cell, if it has one
+     *
+     * @param source The source cell
+     * @param target The target cell
+     */
+    public void copy(final Cell source, final Cell target) {
+        if (!isFormula(source)) {
+            return;
+        }
+
+        if (target.getSheet() == mGapSheet && source.getSheet() == mGapSheet) {
+            copyInGap(source, target);
+            return;
+        }
+
+        final var origin = getOrigin(source);
+        final var ptgs = mShared.convertSharedFormulas(origin.mPtgs, target.getRowIndex() - origin.mRow, 0);
+        final var formula = FormulaRenderer.toFormulaString(mRendering, ptgs);
+        setFormula(target, formula);
+
+        mOrigins.put(getKey(target), new Origin(origin.mPtgs, origin.mRow, formula));
+    }
+
+    /**
+     * Relative references moved by the offset of the rows once the gap is closed : both rows are brought back there, then the copy
+     * moves into the gap again
+     */
+    private void copyInGap(final Cell source, final Cell target) {
+        final var origin = getOrigin(source);
+        final var extern = getExternSheetIndex();
+
+        final var ptgs = mShared.convertSharedFormulas(origin.mPtgs, source.getRowIndex() - origin.mRow, 0);
+        closing().adjustFormula(ptgs, extern);
+        final var copy = mShared.convertSharedFormulas(ptgs, toClosed(target.getRowIndex()) - toClosed(source.getRowIndex()), 0);
+        opening().adjustFormula(copy, extern);
+
+        final var formula = FormulaRenderer.toFormulaString(mRendering, copy);
+        setFormula(target, formula);
+
+        mOrigins.put(getKey(target), new Origin(copy, target.getRowIndex(), formula));
+    }
+
+    private Origin getOrigin(final Cell source) {
+        final var text = source.getCellFormula();
+        var origin = mOrigins.get(getKey(source));
+        if (origin == null || !origin.mText.equals(text)) {
+            // Not a copy, or changed since : parsed once
+            final var sheetIndex = mWorkbook.getSheetIndex(source.getSheet().getSheetName());
+            origin = new Origin(FormulaParser.parse(text, mParsing, FormulaType.CELL, sheetIndex), source.getRowIndex(), text);
+            mOrigins.put(getKey(source), origin);
+        }
+
+        return origin;
+    }
+
+    /**
+     * Rows from the gap moved down by its size, as when it was opened
+     */
+    private FormulaShifter opening() {
+        final var version = mWorkbook.getSpreadsheetVersion();
+        return FormulaShifter.createForRowShift(getExternSheetIndex(), mGapSheet.getSheetName(), mGap, version.getLastRowIndex() - mFree, mFree, version);
+    }
+
+    /**
+     * Rows after the gap moved up by its size, as when it will be closed
+     */
+    private FormulaShifter closing() {
+        final var version = mWorkbook.getSpreadsheetVersion();
+        return FormulaShifter.createForRowShift(getExternSheetIndex(), mGapSheet.getSheetName(), mGap + mFree, version.getLastRowIndex(), -mFree, version);
+    }
+
+    private int toClosed(final int row) {
+        return row < mGap ? row : row - mFree;
+    }
+
+    private int getExternSheetIndex() {
+        return mParsing.getExternalSheetIndex(mGapSheet.getSheetName());
+    }
+
+    private static boolean isFormula(final Cell cell) {
+        return cell.getCellType() == CellType.FORMULA && cell.getCellFormula() != null;
+    }
+
+    /**
+     * Rendered from valid tokens : xlsx does not need to parse it again to validate it
+     */
+    private static void setFormula(final Cell cell, final String formula) {
+        if (cell.getSheet().getWorkbook() instanceof XSSFWorkbook xwb && xwb.getCellFormulaValidation()) {
+            xwb.setCellFormulaValidation(false);
+            try {
+                cell.setCellFormula(formula);
+            } finally {
+                xwb.setCellFormulaValidation(true);
+            }
+        } else {
+            cell.setCellFormula(formula);
+        }
+    }
+
+    private Long getKey(final Cell cell) {
+        final long sheet = mWorkbook.getSheetIndex(cell.getSheet().getSheetName());
+
+        return Long.valueOf(sheet << 40 | (long) cell.getRowIndex() << 14 | cell.getColumnIndex());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * Merged regions of a sheet indexed by first row, and by blocks of rows for the overlaps. POI validates each new region against all the
+ * others and a row copy had to scan all the regions of the sheet : here a new region is only checked against the regions of its blocks of
+ * rows and a row copy only looks at the regions of its source row. As POI did, a region overlapping one already there is refused, so it
+ * is never copied with its row ; the refused regions are reported by {@link #validate()}, when the sheet is done.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class MergedRegions {
+    /**
+     * Blocks of 32 rows for the overlap check
+     */
+    private static final int BLOCK_SHIFT = 5;
+
+    private final Sheet mSheet;
+
+    /**
+     * Regions by first row, built at first use and again after rows have been shifted
+     */
+    private Map<Integer, List<CellRangeAddress>> mByRow;
+
+    /**
+     * Regions by blocks of rows they cover, built with mByRow : only the regions of the same blocks can overlap
+     */
+    private Map<Integer, List<CellRangeAddress>> mByBlock;
+
+    private final List<CellRangeAddress> mRefused = new ArrayList<>();
+
+    /**
+     * Rows have been shifted since the last check
+     */
+    private boolean mShifted;
+
+    /**
+     * Constructor MergedRegions
+     *
+     * @param sheet The sheet
+     */
+    public MergedRegions(final Sheet sheet) {
+        mSheet = sheet;
+    }
+
+    private Map<Integer, List<CellRangeAddress>> getIndex() {
+        if (mByRow == null) {
+            mByRow = new HashMap<>();
+            mByBlock = new HashMap<>();
+            for (final CellRangeAddress r : mSheet.getMergedRegions()) {
+                mByRow.computeIfAbsent(Integer.valueOf(r.getFirstRow()), k -> new ArrayList<>(2)).add(r);
+                index(mByBlock, r);
+            }
+        }
+
+        return mByRow;
+    }
+
+    /**
+     * Rows of the sheet have been shifted, the regions have moved
+     */
+    public void invalidate() {
+        mByRow = null;
+        mByBlock = null;
+        mShifted = true;
+    }
+
+    /**
+     * Add a region, refused if it overlaps another one. The same region twice is only added once.
+     *
+     * @param region The region
+     */
+    public void add(final CellRangeAddress region) {
+        final var regions = getIndex().computeIfAbsent(Integer.valueOf(region.getFirstRow()), k -> new ArrayList<>(2));
+        if (regions.contains(region)) {
+            return;
+        }
+
+        if (overlaps(mByBlock, region)) {
+            mRefused.add(region);
+            return;
+        }
+
+        mSheet.addMergedRegionUnsafe(region);
+        regions.add(region);
+        index(mByBlock, region);
+    }
+
+    /**
+     * @param row The 0 based index of the row
+     * @return The greatest number of rows after the first one of the regions starting on the row, 0 if none
+     */
+    public int getHeight(final int row) {
+        final var regions = getIndex().get(Integer.valueOf(row));
+        if (regions == null) {
+            return 0;
+        }
+
+        var result = 0;
+        for (final CellRangeAddress r : regions) {
+            result = Math.max(result, r.getLastRow() - r.getFirstRow());
+        }
+
+        return result;
+    }
+
+    /**
+     * Copy the regions starting on a row to another row
+     *
+     * @param from The 0 based index of the source row
+     * @param to The 0 based index of the target row
+     */
+    public void copy(final int from, final int to) {
+        final var regions = getIndex().get(Integer.valueOf(from));
+        if (regions == null || from == to) {
+            return;
+        }
+
+        for (final CellRangeAddress r : List.copyOf(regions)) {
+            add(new CellRangeAddress(to, to + r.getLastRow() - r.getFirstRow(), r.getFirstColumn(), r.getLastColumn()));
+        }
+    }
+
+    /**
+     * The regions refused since the last check, in the order of addition. Rows shifted since may have moved a region over another one : as
+     * POI would have done while adding them, in the order of the sheet, a region overlapping one already kept is removed from the sheet.
+     *
+     * @return The refused and removed regions, empty if none
+     */
+    public List<CellRangeAddress> validate() {
+        final List<CellRangeAddress> result = new ArrayList<>(mRefused);
+        mRefused.clear();
+
+        if (mShifted) {
+            mShifted = false;
+            result.addAll(removeOverlaps());
+        }
+
+        return result;
+    }
+
+    private List<CellRangeAddress> removeOverlaps() {
+        final var regions = mSheet.getMergedRegions();
+        final var removed = new BitSet(regions.size());
+
+        final Map<Integer, List<CellRangeAddress>> kept = new HashMap<>();
+        for (var i = 0; i < regions.size(); i++) {
+            final var r = regions.get(i);
+            if (overlaps(kept, r)) {
+                removed.set(i);
+            } else {
+                index(kept, r);
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return List.of();
+        }
+
+        mSheet.removeMergedRegions(removed.stream().boxed().toList());
+        mByRow = null;
+        mByBlock = null;
+
+        return removed.stream().mapToObj(regions::get).toList();
+    }
+
+    private static void index(final Map<Integer, List<CellRangeAddress>> blocks, final CellRangeAddress region) {
+        for (var block = region.getFirstRow() >> BLOCK_SHIFT; block <= region.getLastRow() >> BLOCK_SHIFT; block++) {
+            blocks.computeIfAbsent(Integer.valueOf(block), k -> new ArrayList<>(2)).add(region);
+        }
+    }
+
+    private static boolean overlaps(final Map<Integer, List<CellRangeAddress>> blocks, final CellRangeAddress region) {
+        for (var block = region.getFirstRow() >> BLOCK_SHIFT; block <= region.getLastRow() >> BLOCK_SHIFT; block++) {
+            final var regions = blocks.get(Integer.valueOf(block));
+            if (regions != null) {
+                for (final CellRangeAddress r : regions) {
+                    if (r.intersects(region)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+}
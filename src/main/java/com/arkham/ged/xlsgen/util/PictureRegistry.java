@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arkham.ged.util.GedImage;
+import com.arkham.ged.xlsgen.cache.GenerationKey;
+
+/**
+ * Pictures of a workbook by content : the same image anchored on many rows is stored once, every anchor references the same picture
+ * index.<br>
+ * With a resolution greater than 0 (<code>yeti.image.prescale-dpi</code>), an image drawn at a given size (in millimetres) is first shrunk
+ * to the number of pixels needed at this resolution, if it is bigger. The image is never enlarged.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class PictureRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PictureRegistry.class);
+
+    private static final double MM_PER_INCH = 25.4d;
+
+    private final Workbook mWorkbook;
+    private final int mDpi;
+    private final Map<String, Integer> mPictures = new HashMap<>();
+
+    /**
+     * @param wb The workbook
+     */
+    public PictureRegistry(final Workbook wb) {
+        this(wb, 0);
+    }
+
+    /**
+     * @param wb The workbook
+     * @param dpi The resolution of the prescaled images, 0 or less to keep them as is
+     */
+    public PictureRegistry(final Workbook wb, final int dpi) {
+        mWorkbook = wb;
+        mDpi = dpi;
+    }
+
+    /**
+     * Add a picture drawn at its own size
+     *
+     * @param is The image
+     * @param format eg.: Workbook#PICTURE_TYPE_PNG
+     * @return The index of the picture in the workbook
+     * @throws IOException If the image cannot be read
+     */
+    public int addPicture(final InputStream is, final int format) throws IOException {
+        return addPicture(is, format, 0, 0);
+    }
+
+    /**
+     * Add a picture, or find the same one already added
+     *
+     * @param is The image
+     * @param format eg.: Workbook#PICTURE_TYPE_PNG
+     * @param widthMM The width of the anchor in millimetres, 0 if unknown
+     * @param heightMM The height of the anchor in millimetres, 0 if unknown
+     * @return The index of the picture in the workbook
+     * @throws IOException If the image cannot be read
+     */
+    public int addPicture(final InputStream is, final int format, final double widthMM, final double heightMM) throws IOException {
+        final var data = is.readAllBytes();
+        final var dpi = widthMM > 0 && heightMM > 0 ? mDpi : 0;
+
+        final var md = GenerationKey.newDigest();
+        final var key = HexFormat.of().formatHex(md.digest(data)) + '/' + format + (dpi > 0 ? "/" + widthMM + 'x' + heightMM : "");
+
+        final var index = mPictures.get(key);
+        if (index != null) {
+            return index.intValue();
+        }
+
+        final var picture = dpi > 0 ? prescale(data, format, widthMM * dpi / MM_PER_INCH, heightMM * dpi / MM_PER_INCH) : data;
+        final var result = mWorkbook.addPicture(picture, format);
+        mPictures.put(key, Integer.valueOf(result));
+
+        return result;
+    }
+
+    /**
+     * @param data The image
+     * @param format eg.: Workbook#PICTURE_TYPE_PNG
+     * @param width The width needed, in pixels
+     * @param height The height needed, in pixels
+     * @return The image shrunk (aspect ratio kept), or the same one if already small enough
+     */
+    private static byte[] prescale(final byte[] data, final int format, final double width, final double height) {
+        try (var iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            final var readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return data;
+            }
+
+            // Dimensions only : the header is enough
+            final var reader = readers.next();
+            final int w;
+            final int h;
+            try {
+                reader.setInput(iis, true, true);
+                w = reader.getWidth(0);
+                h = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+
+            // Les deux dimensions doivent rester suffisantes, l'ancre pouvant déformer l'image
+            final var ratio = Math.max(width / w, height / h);
+            if (ratio >= 1) {
+                return data;
+            }
+
+            final var maxDim = (int) Math.ceil(Math.max(w, h) * ratio);
+            final var result = GedImage.resizeImage(data, format == Workbook.PICTURE_TYPE_PNG ? "png" : "jpg", maxDim);
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("prescale() : image {}x{} shrunk to {} pixels, {} => {} bytes", Integer.valueOf(w), Integer.valueOf(h), Integer.valueOf(maxDim), Integer.valueOf(data.length), Integer.valueOf(result.length));
+            }
+
+            // Un JPEG ré-encodé peut être plus gros
+            return result.length < data.length ? result : data;
+        } catch (final IOException | RuntimeException e) { // NOSONAR : the original image is kept
+            LOGGER.warn("prescale() : image kept as is : {}", e.getMessage());
+        }
+
+        return data;
+    }
+}
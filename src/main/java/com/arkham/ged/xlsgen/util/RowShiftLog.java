@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Row insertions of a body with a single shift of the next rows. Each insertion used to shift all the rows below (and POI fixes merged
+ * regions, hyperlinks, formulas of the whole sheet each time), building a body by insertion was quadratic. Here the first insertion
+ * shifts the next rows by a reserve, leaving a gap of empty rows ; the next insertions at the following indexes consume the gap and
+ * {@link #flush()} closes what is left of it. POI fixes up the sheet during these two shifts only.<br>
+ * While a gap is open, row indexes are the ones the sheet will have after {@link #flush()} : they are translated by
+ * {@link #toPhysical(int)}. Formulas written meanwhile must go through the {@link FormulaCopier} given, which moves their references the
+ * same way.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class RowShiftLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowShiftLog.class);
+
+    private final Sheet mSheet;
+    private final MergedRegions mRegions;
+    private final FormulaCopier mFormulas;
+    private final int mReserve;
+    private final int mMaxRow;
+
+    /**
+     * First index of the gap, rows before are not moved
+     */
+    private int mGap;
+
+    /**
+     * Empty rows left in the gap, the shifted rows start at mGap + mFree
+     */
+    private int mFree;
+
+    private int mInserts;
+    private int mShifts;
+
+    /**
+     * Constructor RowShiftLog
+     *
+     * @param sheet The sheet
+     * @param regions The merged regions of the sheet, moved by the shifts
+     * @param formulas The formula copier of the workbook, told where the gap is
+     * @param reserve The size of the gap opened by an insertion, typically the number of rows that may still be inserted
+     */
+    public RowShiftLog(final Sheet sheet, final MergedRegions regions, final FormulaCopier formulas, final int reserve) {
+        mSheet = sheet;
+        mRegions = regions;
+        mFormulas = formulas;
+        mReserve = Math.max(1, reserve);
+        mMaxRow = sheet.getWorkbook().getSpreadsheetVersion().getLastRowIndex();
+    }
+
+    /**
+     * @return The sheet
+     */
+    public Sheet getSheet() {
+        return mSheet;
+    }
+
+    /**
+     * @param index The 0 based index of the row, as if all insertions were applied
+     * @return The index of the row in the sheet
+     */
+    public int toPhysical(final int index) {
+        return mFree == 0 || index < mGap ? index : index + mFree;
+    }
+
+    /**
+     * @param index The 0 based index of the row, as if all insertions were applied
+     * @return The row, null if it does not exist
+     */
+    public Row getRow(final int index) {
+        return mSheet.getRow(toPhysical(index));
+    }
+
+    /**
+     * @return The index of the last row, as if all insertions were applied
+     */
+    public int getLastRowNum() {
+        return mSheet.getLastRowNum() - mFree;
+    }
+
+    /**
+     * @param index The 0 based index of the first row, as if all insertions were applied
+     * @param height The number of rows after the first one
+     * @return true if these rows are on both sides of the gap
+     */
+    public boolean crosses(final int index, final int height) {
+        return mFree > 0 && index < mGap && index + height >= mGap;
+    }
+
+    /**
+     * Insert an empty row : the row at this index and the next ones are moved down by one
+     *
+     * @param index The 0 based index of the row, as if all insertions were applied
+     * @return The index of the new row in the sheet, the row is not created
+     */
+    public int insert(final int index) {
+        mInserts++;
+
+        if (mFree > 0 && index == mGap) {
+            // Next to the previous insertion : take an empty row of the gap
+            mGap++;
+            mFree--;
+            mFormulas.setGap(mSheet, mGap, mFree);
+            return index;
+        }
+
+        flush();
+
+        final var last = mSheet.getLastRowNum();
+        if (index > last) {
+            return index;
+        }
+
+        // Gap bounded by the size of the sheet (POI turns references beyond into #REF!)
+        final var n = Math.max(1, Math.min(mReserve, mMaxRow - last));
+        shift(index, last, n);
+        mShifts++;
+
+        mGap = index + 1;
+        mFree = n - 1;
+        mFormulas.setGap(mSheet, mGap, mFree);
+
+        return index;
+    }
+
+    /**
+     * Close the gap : the shifted rows are moved back just after the inserted ones. Indexes are physical again.
+     */
+    public void flush() {
+        if (mFree > 0) {
+            final var last = mSheet.getLastRowNum();
+            // Also the references to the next rows, up to the size of the gap : a copy may refer to the row after the last one
+            shift(mGap + mFree, Math.min(last + mFree, mMaxRow), -mFree);
+
+            // HSSF laisse des lignes vides à la place des lignes déplacées (et aussi pour les lignes sources au-delà de la
+            // dernière) : la dernière ligne ne serait plus la bonne
+            for (var i = last - mFree + 1; i <= last; i++) {
+                final var row = mSheet.getRow(i);
+                if (row != null) {
+                    mSheet.removeRow(row);
+                }
+            }
+
+            mShifts++;
+            mFree = 0;
+            mFormulas.setGap(mSheet, mGap, 0);
+
+            LOGGER.debug("flush() : {} row(s) inserted in sheet {} with {} shift(s)", Integer.valueOf(mInserts), mSheet.getSheetName(), Integer.valueOf(mShifts));
+        }
+    }
+
+    private void shift(final int first, final int last, final int n) {
+        mSheet.shiftRows(first, last, n);
+        mRegions.invalidate();
+    }
+}
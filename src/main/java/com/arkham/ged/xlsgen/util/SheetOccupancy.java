@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Non empty cells of a sheet, one bitset of rows per column, so that the first empty row of a column range is found without reading the
+ * rows. Built once from the sheet, then rows written are marked by {@link #touch(int)} and read again at the next query only.
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+public final class SheetOccupancy {
+    private final IntFunction<Row> mRows;
+    private final Map<Integer, BitSet> mColumns = new HashMap<>();
+    private BitSet mDirty = new BitSet();
+
+    /**
+     * Constructor SheetOccupancy
+     *
+     * @param rows The rows of the sheet by 0 based index, as seen by the generation (pending insertions, streaming)
+     * @param last The 0 based index of the last row
+     */
+    public SheetOccupancy(final IntFunction<Row> rows, final int last) {
+        mRows = rows;
+        mDirty.set(0, last + 1);
+    }
+
+    /**
+     * A row has been (or will be) written, read it again at the next query
+     *
+     * @param row The 0 based index of the row
+     */
+    public void touch(final int row) {
+        mDirty.set(row);
+    }
+
+    /**
+     * A row has been inserted : the next ones are moved down by one
+     *
+     * @param row The 0 based index of the inserted row
+     */
+    public void insert(final int row) {
+        mColumns.replaceAll((k, v) -> insert(v, row));
+        mDirty = insert(mDirty, row);
+        mDirty.set(row);
+    }
+
+    /**
+     * @param col1 The first column, 0 based
+     * @param col2 The last column, included
+     * @param start The first row to check, 0 based
+     * @return The index of the first row from start whose cells are empty in the column range
+     */
+    public int find(final int col1, final int col2, final int start) {
+        if (start < 0) {
+            // No row there, so nothing in it
+            return start;
+        }
+
+        refresh();
+
+        // Jump over the occupied rows of each column until all agree
+        var result = start;
+        var moved = true;
+        while (moved) {
+            moved = false;
+            for (var col = col1; col <= col2; col++) {
+                final var rows = mColumns.get(Integer.valueOf(col));
+                if (rows != null) {
+                    final var next = rows.nextClearBit(result);
+                    if (next != result) {
+                        result = next;
+                        moved = true;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void refresh() {
+        for (var i = mDirty.nextSetBit(0); i >= 0; i = mDirty.nextSetBit(i + 1)) {
+            for (final BitSet rows : mColumns.values()) {
+                rows.clear(i);
+            }
+
+            final var row = mRows.apply(i);
+            if (row != null) {
+                for (final Cell cell : row) {
+                    if (!isEmpty(cell)) {
+                        mColumns.computeIfAbsent(Integer.valueOf(cell.getColumnIndex()), k -> new BitSet()).set(i);
+                    }
+                }
+            }
+        }
+
+        mDirty.clear();
+    }
+
+    /**
+     * @param row The row, may be null
+     * @param col1 The first column, 0 based
+     * @param col2 The last column, included
+     * @return true if the cells of the row are empty in the column range
+     */
+    public static boolean isEmpty(final Row row, final int col1, final int col2) {
+        if (row == null) {
+            return true;
+        }
+
+        for (var i = col1; i <= col2; i++) {
+            if (!isEmpty(row.getCell(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param cell The cell, may be null
+     * @return true if the cell is blank or its text is blank
+     */
+    public static boolean isEmpty(final Cell cell) {
+        if (cell == null) {
+            return true;
+        }
+
+        return switch (cell.getCellType()) {
+            case BLANK -> true;
+            case STRING -> cell.getStringCellValue().trim().isEmpty();
+            default -> false;
+        };
+    }
+
+    /**
+     * Shift by one the bits from an index
+     */
+    private static BitSet insert(final BitSet bs, final int index) {
+        if (index >= bs.length()) {
+            return bs;
+        }
+
+        // One more word for the carry of the last one
+        final var words = Arrays.copyOf(bs.toLongArray(), (bs.length() >> 6) + 2);
+        final var w0 = index >> 6;
+        final var mask = (1L << (index & 63)) - 1;
+
+        final var high = words[w0] & ~mask;
+        var carry = high >>> 63;
+        words[w0] = words[w0] & mask | high << 1;
+        for (var i = w0 + 1; i < words.length; i++) {
+            final var w = words[i];
+            words[i] = w << 1 | carry;
+            carry = w >>> 63;
+        }
+
+        return BitSet.valueOf(words);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link MergedRegions} against POI validating each region when it is added
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+class MergedRegionsTest {
+    @Test
+    void noOverlap() throws IOException {
+        check(List.of(region(0, 1, 0, 1), region(0, 1, 2, 3), region(2, 3, 0, 3)));
+    }
+
+    @Test
+    void lastAddedIsRemoved() throws IOException {
+        check(List.of(region(5, 6, 0, 1), region(0, 5, 1, 2), region(6, 7, 1, 1)));
+    }
+
+    @Test
+    void chainOfOverlaps() throws IOException {
+        // B overlaps A and C, A and C do not overlap : only B is refused, whatever the order of the rows
+        check(List.of(region(4, 5, 0, 1), region(2, 4, 1, 2), region(1, 2, 2, 3)));
+        check(List.of(region(1, 2, 2, 3), region(2, 4, 1, 2), region(4, 5, 0, 1)));
+    }
+
+    @Test
+    void randomRegions() throws IOException {
+        final var random = new Random(17);
+        for (var n = 0; n < 200; n++) {
+            final List<CellRangeAddress> regions = new ArrayList<>();
+            final var count = 1 + random.nextInt(40);
+            for (var i = 0; i < count; i++) {
+                final var row = random.nextInt(30);
+                final var col = random.nextInt(8);
+                final var height = random.nextInt(4);
+                // Two cells at least, POI refuses a single cell region
+                final var width = height == 0 ? 1 + random.nextInt(3) : random.nextInt(3);
+                regions.add(region(row, row + height, col, col + width));
+            }
+
+            check(regions);
+        }
+    }
+
+    @Test
+    void sameRegionAddedOnce() throws IOException {
+        try (var wb = new HSSFWorkbook()) {
+            final var sheet = wb.createSheet();
+            final var mr = new MergedRegions(sheet);
+            mr.add(region(0, 1, 0, 1));
+            mr.add(region(0, 1, 0, 1));
+
+            assertEquals(1, sheet.getNumMergedRegions());
+            assertTrue(mr.validate().isEmpty());
+        }
+    }
+
+    @Test
+    void copyToAnotherRow() throws IOException {
+        try (var wb = new HSSFWorkbook()) {
+            final var sheet = wb.createSheet();
+            sheet.addMergedRegion(region(2, 3, 0, 1));
+            sheet.addMergedRegion(region(2, 2, 3, 5));
+            sheet.addMergedRegion(region(4, 4, 0, 1));
+
+            final var mr = new MergedRegions(sheet);
+            mr.copy(2, 10);
+
+            assertEquals(List.of(region(2, 3, 0, 1), region(2, 2, 3, 5), region(4, 4, 0, 1), region(10, 11, 0, 1), region(10, 10, 3, 5)), sheet.getMergedRegions());
+            assertTrue(mr.validate().isEmpty());
+        }
+    }
+
+    @Test
+    void refusedRegionNotCopied() throws IOException {
+        try (var wb = new HSSFWorkbook()) {
+            final var sheet = wb.createSheet();
+            sheet.addMergedRegion(region(3, 5, 2, 3));
+
+            // As COPYFROMCURRENT : the copy on row 4 is refused, the next copies have nothing to copy
+            final var mr = new MergedRegions(sheet);
+            mr.copy(3, 4);
+            mr.copy(4, 5);
+            mr.copy(5, 6);
+
+            assertEquals(List.of(region(3, 5, 2, 3)), sheet.getMergedRegions());
+            assertEquals(List.of(region(4, 6, 2, 3)), mr.validate());
+        }
+    }
+
+    /**
+     * The first region is in the model, the others are added while generating
+     */
+    private static void check(final List<CellRangeAddress> regions) throws IOException {
+        try (var expectedWb = new HSSFWorkbook(); var actualWb = new HSSFWorkbook()) {
+            check(expectedWb.createSheet(), actualWb.createSheet(), regions);
+        }
+
+        try (var expectedWb = new XSSFWorkbook(); var actualWb = new XSSFWorkbook()) {
+            check(expectedWb.createSheet(), actualWb.createSheet(), regions);
+        }
+    }
+
+    private static void check(final Sheet expected, final Sheet actual, final List<CellRangeAddress> regions) {
+        expected.addMergedRegion(regions.get(0));
+        actual.addMergedRegion(regions.get(0));
+
+        // Naive : each region checked against all the previous ones
+        final List<CellRangeAddress> refused = new ArrayList<>();
+        for (final CellRangeAddress r : regions.subList(1, regions.size())) {
+            // Except the same region twice, silently added once
+            if (expected.getMergedRegions().contains(r)) {
+                continue;
+            }
+
+            try {
+                expected.addMergedRegion(r);
+            } catch (final IllegalStateException e) { // NOSONAR
+                refused.add(r);
+            }
+        }
+
+        final var mr = new MergedRegions(actual);
+        for (final CellRangeAddress r : regions.subList(1, regions.size())) {
+            mr.add(r);
+        }
+
+        final var removed = mr.validate();
+
+        assertEquals(expected.getMergedRegions(), actual.getMergedRegions(), () -> "merged regions of " + regions);
+        assertEquals(refused, removed, () -> "removed regions of " + regions);
+    }
+
+    private static CellRangeAddress region(final int firstRow, final int lastRow, final int firstCol, final int lastCol) {
+        return new CellRangeAddress(firstRow, lastRow, firstCol, lastCol);
+    }
+}
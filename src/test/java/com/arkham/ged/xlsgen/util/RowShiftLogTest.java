@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link RowShiftLog} against POI shifting the rows once per insertion, on xls and xlsx sheets : rows, formulas and merged regions, also for
+ * rows copied over existing ones
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+class RowShiftLogTest {
+    private static final int ROWS = 30;
+
+    @Test
+    void consecutiveInsertionsInOneGap() throws IOException {
+        check(10, List.of(5, 6, 7, 8));
+    }
+
+    @Test
+    void insertionsBeyondTheReserve() throws IOException {
+        check(2, List.of(5, 6, 7, 8, 9, 10, 11));
+    }
+
+    @Test
+    void gapClosedByAnInsertionElsewhere() throws IOException {
+        check(5, List.of(12, 13, 3, 4, 20, 0, 1));
+    }
+
+    @Test
+    void insertionsAfterTheLastRow() throws IOException {
+        check(5, List.of(28, 29, 30, 31, 40, 41));
+    }
+
+    @Test
+    void randomInsertions() throws IOException {
+        final var random = new Random(17);
+        for (var n = 0; n < 50; n++) {
+            final var count = 1 + random.nextInt(20);
+            final List<Integer> indexes = new ArrayList<>();
+            var index = random.nextInt(ROWS);
+            for (var i = 0; i < count; i++) {
+                // Mostly consecutive, as a body, sometimes somewhere else
+                index = random.nextInt(4) == 0 ? random.nextInt(ROWS + i) : index + 1;
+                indexes.add(Integer.valueOf(index));
+            }
+
+            check(1 + random.nextInt(count + 2), indexes);
+        }
+    }
+
+    @Test
+    void copiesFromCurrentOverAnExistingRow() throws IOException {
+        // As COPYFROMCURRENT : the total row moves down by three
+        checkCopies(5, List.of(new int[] { 5, 6 }, new int[] { 6, 7 }, new int[] { 7, 8 }));
+    }
+
+    @Test
+    void copiesBeyondTheReserve() throws IOException {
+        checkCopies(2, List.of(new int[] { 3, 4 }, new int[] { 4, 5 }, new int[] { 5, 6 }, new int[] { 6, 7 }, new int[] { 7, 8 }));
+    }
+
+    @Test
+    void copiesOfRowsAfterTheGap() throws IOException {
+        checkCopies(10, List.of(new int[] { 20, 5 }, new int[] { 25, 6 }, new int[] { 6, 7 }, new int[] { 29, 8 }, new int[] { 2, 40 }));
+    }
+
+    @Test
+    void copyReferringToTheRowAfterTheLastOne() throws IOException {
+        try (var expectedWb = new HSSFWorkbook(); var actualWb = new HSSFWorkbook()) {
+            checkCopies(createSheet(expectedWb, "B4"), createSheet(actualWb, "B4"), 10, List.of(new int[] { 20, 5 }, new int[] { 2, 40 }));
+        }
+
+        try (var expectedWb = new XSSFWorkbook(); var actualWb = new XSSFWorkbook()) {
+            checkCopies(createSheet(expectedWb, "B4"), createSheet(actualWb, "B4"), 10, List.of(new int[] { 20, 5 }, new int[] { 2, 40 }));
+        }
+    }
+
+    @Test
+    void randomCopies() throws IOException {
+        final var random = new Random(17);
+        for (var n = 0; n < 50; n++) {
+            final var count = 1 + random.nextInt(15);
+            final List<int[]> copies = new ArrayList<>();
+            var to = random.nextInt(ROWS);
+            for (var i = 0; i < count; i++) {
+                // Mostly from the previous row, as a body, sometimes from anywhere
+                to = random.nextInt(4) == 0 ? random.nextInt(ROWS + i + 2) : to + 1;
+                final var from = random.nextBoolean() ? to - 1 : random.nextInt(ROWS + i);
+                if (from >= 0 && from != to) {
+                    copies.add(new int[] { from, to });
+                }
+            }
+
+            checkCopies(1 + random.nextInt(count + 2), copies);
+        }
+    }
+
+    private static void check(final int reserve, final List<Integer> indexes) throws IOException {
+        try (var expectedWb = new HSSFWorkbook(); var actualWb = new HSSFWorkbook()) {
+            check(expectedWb, actualWb, reserve, indexes);
+        }
+
+        try (var expectedWb = new XSSFWorkbook(); var actualWb = new XSSFWorkbook()) {
+            check(expectedWb, actualWb, reserve, indexes);
+        }
+    }
+
+    /**
+     * Same insertions, each followed by the creation of the inserted row, on two identical sheets
+     */
+    private static void check(final Workbook expectedWb, final Workbook actualWb, final int reserve, final List<Integer> indexes) {
+        final var expected = createSheet(expectedWb);
+        final var actual = createSheet(actualWb);
+
+        final var regions = new MergedRegions(actual);
+        final var formulas = new FormulaCopier(actualWb);
+        final var log = new RowShiftLog(actual, regions, formulas, reserve);
+
+        for (final Integer i : indexes) {
+            final var index = i.intValue();
+            final var value = "new" + index;
+            // Naive : one shift per insertion
+            if (index <= expected.getLastRowNum()) {
+                expected.shiftRows(index, expected.getLastRowNum(), 1);
+            }
+            final var expectedRow = expected.createRow(index);
+            expectedRow.createCell(0).setCellValue(value);
+
+            // Above, at and below the gap, also across it, without going beyond the last row (POI makes them #REF! or not)
+            final var last = expected.getLastRowNum() + 1;
+            final var formula = "A" + Math.min(index + 2, last) + "&B" + (index + 1) + "+SUM(B1:B" + Math.min(index + 4, last) + ")";
+            expectedRow.createCell(4).setCellFormula(formula);
+
+            final var actualRow = actual.createRow(log.insert(index));
+            actualRow.createCell(0).setCellValue(value);
+            formulas.write(actualRow.createCell(4), formula);
+            assertEquals(text(expected.getRow(index)), text(log.getRow(index)), () -> "row " + index + " read while the gap is open, " + indexes);
+            assertEquals(expected.getLastRowNum(), log.getLastRowNum(), () -> "last row while the gap is open, " + indexes);
+        }
+        log.flush();
+
+        assertSame(expected, actual, indexes);
+    }
+
+    private static void checkCopies(final int reserve, final List<int[]> copies) throws IOException {
+        try (var expectedWb = new HSSFWorkbook(); var actualWb = new HSSFWorkbook()) {
+            checkCopies(createSheet(expectedWb), createSheet(actualWb), reserve, copies);
+        }
+
+        try (var expectedWb = new XSSFWorkbook(); var actualWb = new XSSFWorkbook()) {
+            checkCopies(createSheet(expectedWb), createSheet(actualWb), reserve, copies);
+        }
+    }
+
+    /**
+     * Same copies on two identical sheets : ExcelUtil.copyRow shifting once per copy over an existing row, and through the log as the body
+     * of a generation
+     */
+    private static void checkCopies(final Sheet expected, final Sheet actual, final int reserve, final List<int[]> copies) {
+        final var regions = new MergedRegions(actual);
+        final var formulas = new FormulaCopier(actual.getWorkbook());
+        final var log = new RowShiftLog(actual, regions, formulas, reserve);
+
+        final List<String> done = new ArrayList<>();
+        for (final int[] copy : copies) {
+            if (isPastTheEnd(expected, copy[0], copy[1])) {
+                continue;
+            }
+            done.add(copy[0] + "->" + copy[1]);
+
+            ExcelUtil.copyRow(expected.getWorkbook(), expected, copy[0], copy[1]);
+            ExcelUtil.copyRow(formulas, log, copy[0], copy[1], regions);
+            assertEquals(expected.getLastRowNum(), log.getLastRowNum(), () -> "last row while the gap is open, " + done);
+        }
+        log.flush();
+        regions.validate();
+
+        assertSame(expected, actual, done);
+    }
+
+    /**
+     * With a formula on the third row, referring to the next one
+     */
+    private static Sheet createSheet(final Workbook wb, final String formula) {
+        final var sheet = createSheet(wb);
+        sheet.getRow(2).createCell(7).setCellFormula(formula);
+
+        return sheet;
+    }
+
+    /**
+     * A region copied past the last row : POI does not move a region over the row after the shifted ones, whatever the number of rows
+     */
+    private static boolean isPastTheEnd(final Sheet sheet, final int from, final int to) {
+        final var last = sheet.getRow(to) != null ? sheet.getLastRowNum() + 1 : Math.max(sheet.getLastRowNum(), to);
+        for (final CellRangeAddress r : sheet.getMergedRegions()) {
+            if (r.getFirstRow() == from && to + r.getLastRow() - r.getFirstRow() > last) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Sheet createSheet(final Workbook wb) {
+        final var sheet = wb.createSheet();
+        for (var i = 0; i < ROWS; i++) {
+            final var row = sheet.createRow(i);
+            row.createCell(0).setCellValue("row" + i);
+            row.createCell(1).setCellValue(i);
+            // Same row and last row, and a total up to this row : copied up or down, the references stay in the sheet (beyond, POI makes
+            // them #REF! or not depending on the number of rows shifted)
+            row.createCell(5).setCellFormula("B" + (i + 1) + "*2-$B$" + ROWS);
+            row.createCell(6).setCellFormula("SUM($B$1:B" + (i + 1) + ")");
+        }
+
+        // Above, across and below the insertions
+        sheet.addMergedRegion(new CellRangeAddress(0, 1, 2, 3));
+        sheet.addMergedRegion(new CellRangeAddress(6, 8, 2, 3));
+        sheet.addMergedRegion(new CellRangeAddress(14, 15, 0, 1));
+        sheet.addMergedRegion(new CellRangeAddress(ROWS - 2, ROWS - 1, 4, 5));
+
+        return sheet;
+    }
+
+    private static void assertSame(final Sheet expected, final Sheet actual, final List<?> indexes) {
+        assertEquals(expected.getLastRowNum(), actual.getLastRowNum(), () -> "last row, " + indexes);
+        for (var i = 0; i <= expected.getLastRowNum(); i++) {
+            final var index = i;
+            assertEquals(text(expected.getRow(i)), text(actual.getRow(i)), () -> "row " + index + ", " + indexes);
+            assertEquals(formulas(expected.getRow(i)), formulas(actual.getRow(i)), () -> "formulas of row " + index + ", " + indexes);
+        }
+
+        assertEquals(regions(expected), regions(actual), () -> "merged regions, " + indexes);
+    }
+
+    private static String text(final Row row) {
+        if (row == null || row.getCell(0) == null) {
+            return null;
+        }
+
+        return row.getCell(0).getStringCellValue();
+    }
+
+    private static List<String> formulas(final Row row) {
+        final List<String> result = new ArrayList<>();
+        if (row != null) {
+            for (final Cell cell : row) {
+                if (cell.getCellType() == CellType.FORMULA) {
+                    result.add(cell.getAddress().formatAsString() + "=" + cell.getCellFormula());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static Set<String> regions(final Sheet sheet) {
+        final Set<String> result = new HashSet<>();
+        for (final CellRangeAddress r : sheet.getMergedRegions()) {
+            result.add(r.formatAsString());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Arkham asylum Software Foundation under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arkham.ged.xlsgen.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SheetOccupancy} against a scan of the rows, after insertions shifted by POI one at a time, on xls and xlsx sheets
+ *
+ * @author arocher / Arkham asylum
+ * @version 1.0
+ * @since 17 oct. 2026
+ */
+class SheetOccupancyTest {
+    private static final int COLS = 6;
+
+    @Test
+    void findOnRandomSheets() throws IOException {
+        final var random = new Random(17);
+        for (var n = 0; n < 20; n++) {
+            final var seed = random.nextLong();
+            check(wb -> {
+                final var sheet = wb.createSheet();
+                fill(sheet, new Random(seed), 150);
+                checkAll(sheet, occupancy(sheet), "seed " + seed);
+            });
+        }
+    }
+
+    @Test
+    void insertAtTheWordBoundaries() throws IOException {
+        for (final int row : new int[] { 0, 1, 62, 63, 64, 65, 127, 128, 191, 192 }) {
+            check(wb -> {
+                final var sheet = wb.createSheet();
+                // Full rows, except one on each side of the boundaries
+                for (var i = 0; i < 200; i++) {
+                    if (i != 60 && i != 66 && i != 130) {
+                        for (var col = 0; col < COLS; col++) {
+                            sheet.createRow(i).createCell(col).setCellValue(i);
+                        }
+                    }
+                }
+
+                final var occupancy = occupancy(sheet);
+                checkAll(sheet, occupancy, "before insertion at " + row);
+                insert(sheet, occupancy, row);
+                checkAll(sheet, occupancy, "insertion at " + row);
+                insert(sheet, occupancy, row);
+                checkAll(sheet, occupancy, "second insertion at " + row);
+            });
+        }
+    }
+
+    @Test
+    void insertBeyondTheLastRow() throws IOException {
+        check(wb -> {
+            final var sheet = wb.createSheet();
+            fill(sheet, new Random(17), 64);
+
+            final var occupancy = occupancy(sheet);
+            insert(sheet, occupancy, 64);
+            insert(sheet, occupancy, 70);
+            write(sheet, occupancy, 70, 0, "text");
+            checkAll(sheet, occupancy, "after the last row");
+        });
+    }
+
+    @Test
+    void touchAfterWriting() throws IOException {
+        check(wb -> {
+            final var sheet = wb.createSheet();
+            fill(sheet, new Random(17), 100);
+
+            final var occupancy = occupancy(sheet);
+            checkAll(sheet, occupancy, "before writing");
+
+            // Filled, emptied by a blank text, then by a blank cell
+            write(sheet, occupancy, 63, 2, "text");
+            write(sheet, occupancy, 64, 2, "text");
+            checkAll(sheet, occupancy, "filled");
+            write(sheet, occupancy, 63, 2, "  ");
+            checkAll(sheet, occupancy, "blank text");
+            sheet.getRow(64).getCell(2).setBlank();
+            occupancy.touch(64);
+            checkAll(sheet, occupancy, "blank cell");
+            write(sheet, occupancy, 120, 5, "new last row");
+            checkAll(sheet, occupancy, "new last row");
+        });
+    }
+
+    @Test
+    void randomInsertionsAndWrites() throws IOException {
+        final var random = new Random(17);
+        for (var n = 0; n < 30; n++) {
+            final var seed = random.nextLong();
+            check(wb -> {
+                final var r = new Random(seed);
+                final var sheet = wb.createSheet();
+                fill(sheet, r, 1 + r.nextInt(200));
+
+                final var occupancy = occupancy(sheet);
+                for (var i = 0; i < 20; i++) {
+                    final var row = r.nextInt(sheet.getLastRowNum() + 3);
+                    if (r.nextBoolean()) {
+                        insert(sheet, occupancy, row);
+                    } else {
+                        write(sheet, occupancy, row, r.nextInt(COLS), r.nextInt(3) == 0 ? " " : "text");
+                    }
+
+                    sample(sheet, occupancy, r, "seed " + seed + ", step " + i);
+                }
+                checkAll(sheet, occupancy, "seed " + seed);
+            });
+        }
+    }
+
+    private interface SheetCheck {
+        void accept(Workbook wb);
+    }
+
+    private static void check(final SheetCheck check) throws IOException {
+        try (var wb = new HSSFWorkbook()) {
+            check.accept(wb);
+        }
+
+        try (var wb = new XSSFWorkbook()) {
+            check.accept(wb);
+        }
+    }
+
+    private static SheetOccupancy occupancy(final Sheet sheet) {
+        return new SheetOccupancy(sheet::getRow, sheet.getLastRowNum());
+    }
+
+    /**
+     * Values, blank texts, blank cells and missing rows
+     */
+    private static void fill(final Sheet sheet, final Random random, final int rows) {
+        for (var i = 0; i < rows; i++) {
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+
+            final var row = sheet.createRow(i);
+            for (var col = 0; col < COLS; col++) {
+                switch (random.nextInt(5)) {
+                    case 0 -> row.createCell(col).setCellValue(" ");
+                    case 1 -> row.createCell(col).setBlank();
+                    case 2 -> {
+                        // No cell
+                    }
+                    default -> row.createCell(col).setCellValue(col);
+                }
+            }
+        }
+    }
+
+    /**
+     * Naive : one shift of the next rows per insertion
+     */
+    private static void insert(final Sheet sheet, final SheetOccupancy occupancy, final int row) {
+        if (row <= sheet.getLastRowNum()) {
+            sheet.shiftRows(row, sheet.getLastRowNum(), 1);
+        }
+        occupancy.insert(row);
+    }
+
+    private static void write(final Sheet sheet, final SheetOccupancy occupancy, final int index, final int col, final String value) {
+        var row = sheet.getRow(index);
+        if (row == null) {
+            row = sheet.createRow(index);
+        }
+        row.createCell(col).setCellValue(value);
+        occupancy.touch(index);
+    }
+
+    /**
+     * As FunctionValueProvider.findEmptyRow without occupancy
+     */
+    private static int scan(final Sheet sheet, final int col1, final int col2, final int start) {
+        final var last = sheet.getLastRowNum();
+
+        var index = start;
+        while (index <= last && !SheetOccupancy.isEmpty(sheet.getRow(index), col1, col2)) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static void checkAll(final Sheet sheet, final SheetOccupancy occupancy, final String label) {
+        for (var col1 = 0; col1 < COLS; col1++) {
+            for (var col2 = col1; col2 < COLS; col2++) {
+                for (var start = 0; start <= sheet.getLastRowNum() + 2; start++) {
+                    assertFind(sheet, occupancy, col1, col2, start, label);
+                }
+            }
+        }
+    }
+
+    private static void sample(final Sheet sheet, final SheetOccupancy occupancy, final Random random, final String label) {
+        for (var i = 0; i < 20; i++) {
+            final var col1 = random.nextInt(COLS);
+            final var col2 = col1 + random.nextInt(COLS - col1);
+            assertFind(sheet, occupancy, col1, col2, random.nextInt(sheet.getLastRowNum() + 3), label);
+        }
+    }
+
+    private static void assertFind(final Sheet sheet, final SheetOccupancy occupancy, final int col1, final int col2, final int start, final String label) {
+        assertEquals(scan(sheet, col1, col2, start), occupancy.find(col1, col2, start), () -> "find(" + col1 + ", " + col2 + ", " + start + "), " + label);
+    }
+}